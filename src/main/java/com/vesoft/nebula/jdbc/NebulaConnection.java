@@ -5,22 +5,23 @@
 
 package com.vesoft.nebula.jdbc;
 
-import com.vesoft.nebula.client.graph.NebulaPoolConfig;
 import com.vesoft.nebula.client.graph.data.HostAddress;
 import com.vesoft.nebula.client.graph.data.ResultSet;
-import com.vesoft.nebula.client.graph.exception.AuthFailedException;
-import com.vesoft.nebula.client.graph.exception.ClientServerIncompatibleException;
+import com.vesoft.nebula.ErrorCode;
 import com.vesoft.nebula.client.graph.exception.IOErrorException;
-import com.vesoft.nebula.client.graph.exception.InvalidConfigException;
-import com.vesoft.nebula.client.graph.exception.NotValidConnectionException;
-import com.vesoft.nebula.client.graph.net.NebulaPool;
-import com.vesoft.nebula.client.graph.net.Session;
+import com.vesoft.nebula.graph.ExecutionResponse;
+import com.vesoft.nebula.jdbc.pool.BalancedSession;
+import com.vesoft.nebula.jdbc.pool.NebulaPoolRegistry;
+import com.vesoft.nebula.jdbc.pool.SharedNebulaPool;
+import com.vesoft.nebula.jdbc.pool.SharedSessionPool;
 import com.vesoft.nebula.jdbc.statement.NebulaPreparedStatementImpl;
+import com.vesoft.nebula.jdbc.statement.NebulaPreparedTemplateCache;
 import com.vesoft.nebula.jdbc.statement.NebulaStatementImpl;
 import com.vesoft.nebula.jdbc.utils.ExceptionBuilder;
+import com.vesoft.nebula.jdbc.utils.NebulaConfig;
 import com.vesoft.nebula.jdbc.utils.NebulaJdbcUrlParser;
 import com.vesoft.nebula.jdbc.utils.NebulaPropertyKey;
-import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Array;
 import java.sql.Blob;
 import java.sql.CallableStatement;
@@ -36,10 +37,30 @@ import java.sql.SQLXML;
 import java.sql.Savepoint;
 import java.sql.Statement;
 import java.sql.Struct;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,78 +68,962 @@ public class NebulaConnection implements Connection {
 
     private final Logger log = LoggerFactory.getLogger(this.getClass());
 
+    private static final Pattern LEADING_USE =
+            Pattern.compile("^\\s*use\\s+`?([^`;\\s]+)`?\\s*(?:;|$)", Pattern.CASE_INSENSITIVE);
+
     private Properties properties;
-    private Session nebulaSession;
-    private String graphSpace = null;
+    private NebulaConfig config;
+    private BalancedSession[] sessions;
+    private final AtomicInteger nextSession = new AtomicInteger();
+    private BalancedSession hedgeSession;
+    private BalancedSession adminSession;
+    private volatile String graphSpace = null;
     private boolean isClosed = false;
-    private NebulaPool nebulaPool;
+    private volatile boolean hasSessionError = false;
+    private volatile long lastVerifiedTime = 0;
+    private volatile long lastUsedTime = System.currentTimeMillis();
+    private ScheduledFuture<?> keepAliveTask;
+    private SharedNebulaPool sharedPool;
+    private SharedSessionPool sharedSessionPool;
+    private volatile boolean sessionOpened = false;
+    private CompletableFuture<Void> opening;
+    private final Map<Integer, CompletableFuture<BalancedSession>> openingSlots = new HashMap<>();
+    private NebulaPoolRegistry poolRegistry;
+    /**
+     * guards the sessions of the connection. A lock rather than synchronized, so a virtual thread
+     * waiting on it, or blocked in a request while holding it, does not pin its carrier thread.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private List<HostAddress> addresses;
+    private NebulaPreparedTemplateCache templateCache;
 
 
     protected NebulaConnection(String url, Properties properties) throws SQLException {
+        this(url, properties, NebulaDriver.getPoolRegistry());
+    }
+
+    protected NebulaConnection(String url, Properties properties, NebulaPoolRegistry poolRegistry) throws SQLException {
         try {
             this.properties = NebulaJdbcUrlParser.parse(url, properties);
         } catch (Exception e) {
             throw new SQLException(e);
         }
-        this.graphSpace = properties.getProperty(NebulaPropertyKey.DBNAME.getKeyName());
-        initNebulaPool(url, properties);
-        // check whether access the given graph space successfully.
+        this.config = NebulaConfig.parse(this.properties);
+        this.graphSpace = this.properties.getProperty(NebulaPropertyKey.DBNAME.getKeyName());
+        this.addresses = NebulaJdbcUrlParser.getAddresses(url);
+        this.poolRegistry = poolRegistry;
+        this.templateCache = new NebulaPreparedTemplateCache(config.getPreparedStatementCacheSize());
+        if (!config.isLazyInit()) {
+            openSession();
+        }
+    }
+
+    /**
+     * get the pool and the first session of this connection, with lazyInit it is called by the
+     * first execute. The other sessions of sessionsPerConnection are opened when first needed.
+     * They are opened outside the lock, threads arriving meanwhile wait for them.
+     */
+    private void openSession() throws SQLException {
+        CompletableFuture<Void> pending;
+        boolean open;
+        lock.lock();
+        try {
+            if (sessionOpened) {
+                return;
+            }
+            checkClosed();
+            pending = opening;
+            open = pending == null;
+            if (open) {
+                pending = new CompletableFuture<>();
+                opening = pending;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!open) {
+            await(pending);
+            return;
+        }
+        SharedSessionPool sessionPool = null;
+        SharedNebulaPool pool = null;
+        BalancedSession first = null;
         try {
-            this.nebulaSession =
-                    nebulaPool.getSession(properties.getProperty(NebulaPropertyKey.USER.getKeyName()),
-                            properties.getProperty(NebulaPropertyKey.PASSWORD.getKeyName()), true);
-            ResultSet result = nebulaSession.execute("use " + graphSpace);
-            if (result.isSucceeded()) {
-                this.graphSpace = graphSpace;
+            if (config.isSessionPool()) {
+                // sessions of the SessionPool are switched to the graph space when they are created
+                sessionPool = poolRegistry.acquireSessionPool(
+                        config.toSessionPoolConfig(addresses, graphSpace, getUser(), getPassword()));
+            } else {
+                pool = poolRegistry.acquire(addresses, config);
+                if (config.isWarmUp()) {
+                    pool.warmUpAsync(config.getWarmUpConnectionsPerHost(addresses.size()));
+                }
+                try {
+                    first = newSession(pool, graphSpace);
+                } catch (SQLException e) {
+                    pool.release();
+                    throw e;
+                }
                 log.info(String.format("Access graph space [%s] succeeded", graphSpace));
+            }
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                opening = null;
+            } finally {
+                lock.unlock();
+            }
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        boolean closed;
+        lock.lock();
+        try {
+            opening = null;
+            closed = isClosed;
+            if (!closed) {
+                if (sessionPool != null) {
+                    sharedSessionPool = sessionPool;
+                } else {
+                    sharedPool = pool;
+                    sessions = new BalancedSession[config.getSessionsPerConnection()];
+                    openingSlots.clear();
+                    sessions[0] = first;
+                    lastVerifiedTime = System.currentTimeMillis();
+                    scheduleKeepAlive();
+                }
+                sessionOpened = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (closed) {
+            if (sessionPool != null) {
+                sessionPool.release();
             } else {
+                first.release();
+                pool.release();
+            }
+        }
+        pending.complete(null);
+        checkClosed();
+    }
+
+    /**
+     * open a session of pool and check whether it accesses the graph space successfully.
+     */
+    private BalancedSession newSession(SharedNebulaPool pool, String space) throws SQLException {
+        BalancedSession session = pool.getSession(getUser(), getPassword());
+        try {
+            ResultSet result = session.executeIdentified(useOf(space));
+            if (!result.isSucceeded()) {
                 throw new SQLException(String.format("Access graph space [%s] failed. Error code:" +
                                 " %d, Error message: %s",
-                        graphSpace, result.getErrorCode(), result.getErrorMessage()));
+                        space, result.getErrorCode(), result.getErrorMessage()));
             }
-        } catch (IOErrorException | AuthFailedException | NotValidConnectionException | ClientServerIncompatibleException e) {
-            throw new SQLException(e);
+        } catch (IOErrorException | SQLException e) {
+            session.release();
+            throw e instanceof SQLException ? (SQLException) e : new SQLException(e.getMessage(), e);
         }
+        session.setSpace(space);
+        return session;
     }
 
-    private void initNebulaPool(String url, Properties properties) throws SQLException {
-        int minConnsSize = (int) properties.getOrDefault(NebulaPropertyKey.MINCONNSSIZE, 0);
-        int maxConnsSize = (int) properties.getOrDefault(NebulaPropertyKey.MAXCONNSSIZE, 10);
-        int timeout = (int) properties.getOrDefault(NebulaPropertyKey.TIMEOUT, 0);
-        int idleTime = (int) properties.getOrDefault(NebulaPropertyKey.IDLETIME, 0);
-        int intervalIdle = (int) properties.getOrDefault(NebulaPropertyKey.INTERVALIDLE, -1);
-        int waitTime = (int) properties.getOrDefault(NebulaPropertyKey.WAITTIME, 0);
+    private static <T> T await(CompletableFuture<T> pending) throws SQLException {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a session to open.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException(e.getCause().getMessage(), e.getCause());
+        }
+    }
 
-        NebulaPoolConfig nebulaPoolConfig = new NebulaPoolConfig();
-        nebulaPoolConfig.setMinConnSize(minConnsSize);
-        nebulaPoolConfig.setMaxConnSize(maxConnsSize);
-        nebulaPoolConfig.setTimeout(timeout);
-        nebulaPoolConfig.setIdleTime(idleTime);
-        nebulaPoolConfig.setIntervalIdle(intervalIdle);
-        nebulaPoolConfig.setWaitTime(waitTime);
+    /**
+     * the session to run the next statement on, null in session pool mode. A broken session in
+     * the chosen slot is replaced once no request runs on it, so a connection recovers without
+     * retries too. The slot is reserved under the lock and its session opened outside of it,
+     * other threads choosing the slot meanwhile wait for it.
+     */
+    private BalancedSession checkoutSession() throws SQLException {
+        while (true) {
+            openSession();
+            BalancedSession[] slots;
+            int slot;
+            BalancedSession stale = null;
+            CompletableFuture<BalancedSession> pending;
+            boolean open;
+            SharedNebulaPool pool;
+            String space;
+            lock.lock();
+            try {
+                checkClosed();
+                if (!sessionOpened) {
+                    // evicted since openSession returned
+                    continue;
+                }
+                if (sharedSessionPool != null) {
+                    return null;
+                }
+                slots = sessions;
+                slot = chooseSlot();
+                if (slots[slot] != null && slots[slot].isBroken() && slots[slot].getInFlight() == 0) {
+                    stale = slots[slot];
+                    slots[slot] = null;
+                }
+                if (slots[slot] != null) {
+                    return slots[slot];
+                }
+                pending = openingSlots.get(slot);
+                open = pending == null;
+                if (open) {
+                    pending = new CompletableFuture<>();
+                    openingSlots.put(slot, pending);
+                }
+                pool = sharedPool;
+                space = graphSpace;
+            } finally {
+                lock.unlock();
+            }
+            if (stale != null) {
+                stale.release();
+            }
+            if (!open) {
+                await(pending);
+                continue;
+            }
+            BalancedSession session;
+            try {
+                session = newSession(pool, space);
+            } catch (SQLException | RuntimeException e) {
+                lock.lock();
+                try {
+                    if (sessions == slots) {
+                        openingSlots.remove(slot);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                pending.completeExceptionally(e);
+                throw e;
+            }
+            boolean published = false;
+            lock.lock();
+            try {
+                // the connection may have been closed or evicted while the session opened
+                if (!isClosed && sessionOpened && sessions == slots && sharedPool == pool) {
+                    slots[slot] = session;
+                    openingSlots.remove(slot);
+                    published = true;
+                    if (hasSessionError && !hasBrokenSession()) {
+                        hasSessionError = false;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            pending.complete(session);
+            if (published) {
+                return session;
+            }
+            session.release();
+        }
+    }
+
+    /**
+     * whether a statement still runs on a session, a session is not given back under it.
+     */
+    private boolean hasRequestInFlight() {
+        for (BalancedSession session : sessions) {
+            if (session != null && session.getInFlight() > 0) {
+                return true;
+            }
+        }
+        return (hedgeSession != null && hedgeSession.getInFlight() > 0)
+                || (adminSession != null && adminSession.getInFlight() > 0);
+    }
+
+    private boolean hasBrokenSession() {
+        for (BalancedSession session : sessions) {
+            if (session != null && session.isBroken()) {
+                return true;
+            }
+        }
+        return hedgeSession != null && hedgeSession.isBroken();
+    }
+
+    private int chooseSlot() {
+        int size = sessions.length;
+        if (size == 1) {
+            return 0;
+        }
+        switch (config.getSessionBinding()) {
+            case PER_THREAD:
+                return (int) (Thread.currentThread().getId() % size);
+            case LEAST_BUSY:
+                int best = -1;
+                int empty = -1;
+                for (int i = 0; i < size; i++) {
+                    if (sessions[i] == null) {
+                        empty = empty < 0 ? i : empty;
+                    } else if (best < 0 || sessions[i].getInFlight() < sessions[best].getInFlight()) {
+                        best = i;
+                    }
+                }
+                return best >= 0 && (sessions[best].getInFlight() == 0 || empty < 0) ? best : empty;
+            default:
+                return Math.floorMod(nextSession.getAndIncrement(), size);
+        }
+    }
 
-        List<HostAddress> addressList = NebulaJdbcUrlParser.getAddresses(url);
-        nebulaPool = new NebulaPool();
+    /**
+     * run the statement on the session. Leading USE clauses are taken off, the session is switched
+     * to the last one in the same request, and only if it is not there already. A statement that
+     * is nothing but a USE of the space the session is in is answered without a round trip. The
+     * space graphd reports after the request becomes the space of the session and the connection.
+     */
+    private ResultSet executeOn(BalancedSession session, String nGql, Map<String, Object> parameters,
+                                NebulaRunningQuery query) throws IOErrorException {
+        String space = graphSpace;
+        String statement = nGql;
+        for (Matcher use = LEADING_USE.matcher(statement); use.lookingAt(); use = LEADING_USE.matcher(statement)) {
+            space = use.group(1);
+            statement = statement.substring(use.end());
+        }
+        boolean switchSpace = space != null && !space.equals(session.getSpace());
+        if (statement.trim().isEmpty()) {
+            if (!switchSpace) {
+                graphSpace = space;
+                return succeeded(space);
+            }
+            statement = useOf(space);
+        } else if (switchSpace) {
+            statement = useOf(space) + ";" + statement;
+        }
+        ResultSet result;
+        if (query != null) {
+            query.started(session);
+        }
         try {
-            long start = System.currentTimeMillis();
-            nebulaPool.init(addressList, nebulaPoolConfig);
-            long end = System.currentTimeMillis();
-            log.info("NebulaPool.init(addressList, nebulaPoolConfig) use " + (end - start) + " ms");
-        } catch (UnknownHostException | InvalidConfigException e) {
-            throw new SQLException(e);
+            // a cancel that came before the session was known could not kill it, so it is not sent
+            result = query != null && query.isCancelled()
+                    ? new ResultSet(new ExecutionResponse(ErrorCode.E_PLAN_IS_KILLED, 0), 0)
+                    : session.execute(statement, parameters);
+        } finally {
+            if (query != null) {
+                query.finished(session);
+            }
+        }
+        // graphd tells the space the session ended in, a USE anywhere in the request counts
+        String serverSpace = result.getSpaceName();
+        if (result.isSucceeded()) {
+            space = serverSpace.isEmpty() ? space : serverSpace;
+            session.setSpace(space);
+            graphSpace = space;
+        } else {
+            // a use may have passed before the statement failed
+            session.setSpace(serverSpace.isEmpty() ? null : serverSpace);
         }
+        return result;
     }
 
+    private static String useOf(String space) {
+        return "use `" + space + "`";
+    }
+
+    /**
+     * leading USE clauses of the space of the session pool are dropped, it would reject a
+     * statement made of them only.
+     */
+    private String stripUseOfSpace(String nGql) {
+        String statement = nGql;
+        for (Matcher use = LEADING_USE.matcher(statement); use.lookingAt(); use = LEADING_USE.matcher(statement)) {
+            if (!use.group(1).equals(graphSpace)) {
+                break;
+            }
+            statement = statement.substring(use.end());
+        }
+        return statement;
+    }
+
+    private static ResultSet succeeded(String space) {
+        ExecutionResponse response = new ExecutionResponse(ErrorCode.SUCCEEDED, 0);
+        if (space != null) {
+            response.setSpace_name(space.getBytes(StandardCharsets.UTF_8));
+        }
+        return new ResultSet(response, 0);
+    }
 
     public ResultSet execute(String nGql) throws SQLException {
+        return execute(nGql, null);
+    }
+
+    /**
+     * execute nGql with the values of its $name parameters, they are sent apart from the text
+     * instead of as literals in it.
+     */
+    public ResultSet execute(String nGql, Map<String, Object> parameters) throws SQLException {
+        return execute(nGql, parameters, null);
+    }
+
+    /**
+     * @param query tracks the sessions the statement runs on, for {@link #cancel(NebulaRunningQuery)}
+     */
+    public ResultSet execute(String nGql, Map<String, Object> parameters, NebulaRunningQuery query)
+            throws SQLException {
         this.checkClosed();
+        lastUsedTime = System.currentTimeMillis();
+        BalancedSession session = checkoutSession();
         try {
-            return nebulaSession.execute(nGql);
+            ResultSet result;
+            if (session != null) {
+                result = executeOn(session, nGql, parameters, query);
+            } else if (parameters != null) {
+                throw new SQLException("The session pool can not execute statements with parameters.");
+            } else {
+                String statement = stripUseOfSpace(nGql);
+                result = statement.trim().isEmpty() ? succeeded(graphSpace) : sharedSessionPool.execute(statement);
+            }
+            lastVerifiedTime = System.currentTimeMillis();
+            return result;
         } catch (IOErrorException e) {
-            throw new SQLException(e.getMessage());
+            hasSessionError = true;
+            throw new SQLException(e.getMessage(), e);
+        } finally {
+            // idle time counts from the end of the last statement, not from its start
+            lastUsedTime = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * with keepAliveTime or idleEvictTime set, check the sessions periodically on the driver
+     * scheduler. The session pool keeps its sessions alive itself.
+     */
+    private void scheduleKeepAlive() {
+        long period = Math.min(positiveOrMax(config.getKeepAliveTime()), positiveOrMax(config.getIdleEvictTime()));
+        if (keepAliveTask != null || period == Long.MAX_VALUE || sharedPool == null) {
+            return;
+        }
+        keepAliveTask = poolRegistry.getScheduler().scheduleWithFixedDelay(
+                () -> poolRegistry.getExecutor().execute(this::keepAlive), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private static long positiveOrMax(long value) {
+        return value > 0 ? value : Long.MAX_VALUE;
+    }
+
+    /**
+     * evict the sessions if the connection was idle for idleEvictTime and no statement runs,
+     * otherwise ping every idle session silent for keepAliveTime so graphd does not expire it. A session failing the ping
+     * is replaced now rather than by the next statement.
+     */
+    private void keepAlive() {
+        long now = System.currentTimeMillis();
+        List<BalancedSession> silent = new ArrayList<>();
+        lock.lock();
+        try {
+            if (isClosed || !sessionOpened || sharedPool == null) {
+                return;
+            }
+            if (config.getIdleEvictTime() > 0 && now - lastUsedTime >= config.getIdleEvictTime()
+                    && !hasRequestInFlight()) {
+                evictSession();
+                return;
+            }
+            if (config.getKeepAliveTime() <= 0) {
+                return;
+            }
+            for (BalancedSession session : sessions) {
+                if (session != null && session.getInFlight() == 0
+                        && now - session.getLastSuccessTime() >= config.getKeepAliveTime()) {
+                    silent.add(session);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        boolean failed = false;
+        for (BalancedSession session : silent) {
+            try {
+                ResultSet result = session.execute("YIELD 1");
+                if (result.isSucceeded()) {
+                    lastVerifiedTime = System.currentTimeMillis();
+                    continue;
+                }
+                log.warn("keepalive of session failed, error code: {}, error message: {}",
+                        result.getErrorCode(), result.getErrorMessage());
+                session.markBroken();
+            } catch (IOErrorException e) {
+                log.warn("keepalive of session failed: {}", e.getMessage());
+            }
+            failed = true;
+        }
+        if (!failed) {
+            return;
+        }
+        try {
+            replaceBrokenSessions();
+        } catch (SQLException e) {
+            hasSessionError = true;
+            log.warn("replace session failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * give the sessions and pool back, the next statement opens them again.
+     */
+    private void evictSession() {
+        lock.lock();
+        try {
+            releaseSessions();
+            sharedPool.release();
+            sharedPool = null;
+            cancelKeepAlive();
+            sessionOpened = false;
+            log.info("session idle for {} ms, evicted", System.currentTimeMillis() - lastUsedTime);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseSessions() {
+        for (int i = 0; i < sessions.length; i++) {
+            if (sessions[i] != null) {
+                sessions[i].release();
+                sessions[i] = null;
+            }
+        }
+        if (hedgeSession != null) {
+            hedgeSession.release();
+            hedgeSession = null;
+        }
+        if (adminSession != null) {
+            adminSession.release();
+            adminSession = null;
+        }
+    }
+
+    private void cancelKeepAlive() {
+        if (keepAliveTask != null) {
+            keepAliveTask.cancel(false);
+            keepAliveTask = null;
+        }
+    }
+
+    /**
+     * execute a statement that only reads data. It is idempotent, so after an io error it is run
+     * again on a new session up to retryTimes times. With hedgeRead, if no reply arrived after the
+     * hedgePercentile of recent read latencies, the statement is sent once more on a session to
+     * another graphd and the first reply wins. The session losing the race is not waited for, its
+     * query is killed and the session released, the next hedge opens a fresh spare.
+     */
+    public ResultSet executeRead(String nGql) throws SQLException {
+        return executeRead(nGql, null);
+    }
+
+    /**
+     * execute a read-only statement with the values of its $name parameters, see
+     * {@link #executeRead(String)}.
+     */
+    public ResultSet executeRead(String nGql, Map<String, Object> parameters) throws SQLException {
+        return executeRead(nGql, parameters, null);
+    }
+
+    /**
+     * @param query tracks the sessions the statement runs on, a cancelled query is not retried
+     */
+    public ResultSet executeRead(String nGql, Map<String, Object> parameters, NebulaRunningQuery query)
+            throws SQLException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return config.isHedgeRead() ? executeHedged(nGql, parameters, query)
+                        : execute(nGql, parameters, query);
+            } catch (SQLException e) {
+                if (!(e.getCause() instanceof IOErrorException) || attempt >= config.getRetryTimes()
+                        || (query != null && query.isCancelled())) {
+                    throw e;
+                }
+                long backoff = backoffMillis(attempt, config.getRetryBackoff(), config.getRetryMaxBackoff());
+                log.warn("read failed on attempt {}, retry in {} ms on a new session: {}", attempt + 1, backoff,
+                        e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                replaceBrokenSessions();
+            }
+        }
+    }
+
+    /**
+     * kill the query in graphd: find its plan with SHOW QUERIES on the admin session of the
+     * connection and run KILL QUERY there, the thread waiting for it then gets an error back. A
+     * session whose id is unknown, like a hedge spare, is marked broken instead and closed once
+     * its request returns. The session pool gives no sessions, there the query is only marked
+     * cancelled.
+     */
+    public void cancel(NebulaRunningQuery query) throws SQLException {
+        cancel(query, false);
+    }
+
+    private void cancel(NebulaRunningQuery query, boolean timeout) throws SQLException {
+        query.markCancelled(timeout);
+        Set<Long> sessionIds = new HashSet<>();
+        for (BalancedSession session : query.getSessions()) {
+            if (session.getSessionId() >= 0) {
+                sessionIds.add(session.getSessionId());
+            } else {
+                // nothing to kill it by, the session is dropped once its request returns
+                session.markBroken();
+            }
+        }
+        if (sessionIds.isEmpty()) {
+            return;
+        }
+        BalancedSession side = adminSession();
+        if (side == null) {
+            return;
+        }
+        try {
+            ResultSet queries = side.execute("SHOW QUERIES");
+            if (!queries.isSucceeded()) {
+                throw new SQLException(String.format("Can not list the queries to kill, error code: %d, "
+                        + "error message: %s", queries.getErrorCode(), queries.getErrorMessage()));
+            }
+            for (int i = 0; i < queries.rowsSize(); i++) {
+                ResultSet.Record row = queries.rowValues(i);
+                long sessionId = row.get("SessionID").asLong();
+                if (!sessionIds.contains(sessionId)) {
+                    continue;
+                }
+                long planId = row.get("ExecutionPlanID").asLong();
+                ResultSet killed = side.execute(String.format("KILL QUERY (session=%d, plan=%d)", sessionId, planId));
+                if (!killed.isSucceeded()) {
+                    log.warn("kill query of session {} plan {} failed: {}", sessionId, planId,
+                            killed.getErrorMessage());
+                }
+            }
+        } catch (IOErrorException | RuntimeException e) {
+            throw new SQLException("Cancel query failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * the session cancels and timeouts run on, opened by the first of them and kept until the
+     * connection is closed or evicted, so a kill does not pay for a login. A broken one is
+     * replaced. Null when the connection has no sessions of its own.
+     */
+    private BalancedSession adminSession() throws SQLException {
+        lock.lock();
+        try {
+            if (isClosed || sharedPool == null) {
+                return null;
+            }
+            if (adminSession != null && adminSession.isBroken() && adminSession.getInFlight() == 0) {
+                adminSession.release();
+                adminSession = null;
+            }
+            if (adminSession == null) {
+                adminSession = sharedPool.getSession(getUser(), getPassword());
+            }
+            return adminSession;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * cancel the query on the driver scheduler once timeoutMillis passed, unless the returned
+     * future is cancelled first.
+     */
+    public ScheduledFuture<?> scheduleTimeout(NebulaRunningQuery query, long timeoutMillis) {
+        return poolRegistry.getScheduler().schedule(() -> poolRegistry.getExecutor().execute(() -> {
+            try {
+                cancel(query, true);
+            } catch (SQLException e) {
+                log.warn("kill of a query past its timeout failed: {}", e.getMessage());
+            }
+        }), timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * exponential backoff with equal jitter: half of the delay is fixed, the other half random,
+     * so retries of many connections hitting the same failure spread out.
+     */
+    static long backoffMillis(int attempt, long baseMillis, long maxMillis) {
+        long delay = Math.min(maxMillis, baseMillis << Math.min(attempt, 30));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * drop the idle sessions that hit an io error, the next checkout of their slots opens new ones
+     * outside the lock and the circuit breakers keep them off a failing graphd. The session pool
+     * replaces broken sessions itself.
+     */
+    private void replaceBrokenSessions() throws SQLException {
+        List<BalancedSession> stale = new ArrayList<>();
+        lock.lock();
+        try {
+            checkClosed();
+            if (sharedPool == null) {
+                return;
+            }
+            if (hedgeSession != null && hedgeSession.isBroken() && hedgeSession.getInFlight() == 0) {
+                stale.add(hedgeSession);
+                hedgeSession = null;
+            }
+            for (int i = 0; i < sessions.length; i++) {
+                if (sessions[i] != null && sessions[i].isBroken() && sessions[i].getInFlight() == 0) {
+                    stale.add(sessions[i]);
+                    sessions[i] = null;
+                }
+            }
+            if (!hasBrokenSession()) {
+                hasSessionError = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (BalancedSession session : stale) {
+            session.release();
+        }
+    }
+
+    /**
+     * run a read-only statement with hedging, see {@link #executeRead(String)}.
+     */
+    private ResultSet executeHedged(String nGql, Map<String, Object> parameters, NebulaRunningQuery query)
+            throws SQLException {
+        this.checkClosed();
+        lastUsedTime = System.currentTimeMillis();
+        BalancedSession primary;
+        BalancedSession spare;
+        SharedNebulaPool sharedPool;
+        primary = checkoutSession();
+        lock.lock();
+        try {
+            spare = hedgeSession;
+            sharedPool = this.sharedPool;
+        } finally {
+            lock.unlock();
+        }
+        long hedgeDelay = sharedPool.getHedgeDelayMicros(config.getHedgePercentile(), config.getHedgeMinDelay());
+        if (sharedPool.getHosts().size() < 2) {
+            hedgeDelay = -1;
+        }
+
+        CompletableFuture<Map.Entry<BalancedSession, ResultSet>> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        AtomicReference<BalancedSession> hedged = new AtomicReference<>();
+        ExecutorService executor = sharedPool.getHedgeExecutor();
+        Runnable primaryAttempt = () -> {
+            long start = System.nanoTime();
+            ResultSet result = runAttempt(primary, nGql, parameters, query, winner, pending);
+            // failed, killed or cancelled attempts say nothing about how long a read takes
+            if (result != null && result.isSucceeded() && (query == null || !query.isCancelled())) {
+                sharedPool.recordReadLatency(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            }
+        };
+        if (hedgeDelay < 0) {
+            // nothing to hedge with, so no thread handoff either
+            primaryAttempt.run();
+        } else {
+            executor.execute(primaryAttempt);
+        }
+        Map.Entry<BalancedSession, ResultSet> result;
+        try {
+            try {
+                result = hedgeDelay < 0 ? winner.get() : winner.get(hedgeDelay, TimeUnit.MICROSECONDS);
+            } catch (TimeoutException e) {
+                pending.incrementAndGet();
+                executor.execute(() -> {
+                    BalancedSession hedge = spare;
+                    try {
+                        if (hedge == null) {
+                            hedge = sharedPool.getSession(getUser(), getPassword(), primary.getHost());
+                            keepSpareSession(hedge);
+                        }
+                    } catch (SQLException openError) {
+                        fail(winner, pending, openError);
+                        return;
+                    }
+                    hedged.set(hedge);
+                    runAttempt(hedge, nGql, parameters, query, winner, pending);
+                });
+                result = winner.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the result.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOErrorException) {
+                hasSessionError = true;
+            }
+            throw e.getCause() instanceof SQLException ? (SQLException) e.getCause()
+                    : new SQLException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            lastUsedTime = System.currentTimeMillis();
+        }
+        lastVerifiedTime = System.currentTimeMillis();
+        BalancedSession loser = result.getKey() == primary ? hedged.get() : primary;
+        if (loser != null && loser.getInFlight() > 0) {
+            discardLoser(primary, result.getKey(), loser);
+        } else if (result.getKey() != primary) {
+            swapHedgeSession(primary, result.getKey());
+        }
+        return result.getValue();
+    }
+
+    /**
+     * @return the result, or null when the attempt failed
+     */
+    private ResultSet runAttempt(BalancedSession session, String nGql, Map<String, Object> parameters,
+                                 NebulaRunningQuery query,
+                                 CompletableFuture<Map.Entry<BalancedSession, ResultSet>> winner,
+                                 AtomicInteger pending) {
+        try {
+            ResultSet result = executeOn(session, nGql, parameters, query);
+            winner.complete(new AbstractMap.SimpleImmutableEntry<>(session, result));
+            pending.decrementAndGet();
+            return result;
+        } catch (IOErrorException | RuntimeException e) {
+            dropSpareSession(session);
+            fail(winner, pending, e);
+            return null;
+        }
+    }
+
+    /**
+     * the loser of a hedge is still running the read. The client serializes the requests of a
+     * session, so the next read on it would queue behind the straggler: kill the straggler in
+     * graphd and release the session, the winner takes the slot of the primary if it won.
+     */
+    private void discardLoser(BalancedSession primary, BalancedSession winner, BalancedSession loser) {
+        boolean release;
+        lock.lock();
+        try {
+            if (winner != primary && !isClosed && sessions != null) {
+                int slot = Arrays.asList(sessions).indexOf(primary);
+                if (slot >= 0 && hedgeSession == winner) {
+                    sessions[slot] = winner;
+                    hedgeSession = null;
+                    log.info("hedged read answered by {} first, switch to it", winner.getHost().getAddress());
+                }
+            }
+            if (hedgeSession == loser) {
+                hedgeSession = null;
+            }
+            // a closed connection released its sessions, one still in a slot stays in use
+            release = !isClosed && (sessions == null || !Arrays.asList(sessions).contains(loser));
+        } finally {
+            lock.unlock();
+        }
+        NebulaRunningQuery straggler = new NebulaRunningQuery();
+        straggler.started(loser);
+        try {
+            poolRegistry.getExecutor().execute(() -> {
+                try {
+                    cancel(straggler);
+                } catch (SQLException e) {
+                    log.warn("kill of the slower hedged read failed: {}", e.getMessage());
+                } finally {
+                    if (release) {
+                        loser.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (release) {
+                loser.release();
+            }
         }
     }
 
+    /**
+     * a spare session that failed is not kept for the next hedge.
+     */
+    private void dropSpareSession(BalancedSession session) {
+        lock.lock();
+        try {
+            if (hedgeSession == session && !isClosed) {
+                hedgeSession = null;
+                session.release();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * only the last attempt failing fails the request.
+     */
+    private void fail(CompletableFuture<?> winner, AtomicInteger pending, Exception e) {
+        if (pending.decrementAndGet() == 0) {
+            winner.completeExceptionally(e);
+        } else {
+            log.warn("hedged attempt failed: {}", e.getMessage());
+        }
+    }
+
+    private void keepSpareSession(BalancedSession spare) throws SQLException {
+        lock.lock();
+        try {
+            if (isClosed || hedgeSession != null) {
+                spare.release();
+                throw new SQLException("Connection closed or its hedge session already opened.");
+            }
+            hedgeSession = spare;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * the hedge answered first, it takes the place of the slow session, which is kept as spare.
+     */
+    private void swapHedgeSession(BalancedSession primary, BalancedSession hedge) {
+        lock.lock();
+        try {
+            int slot = isClosed || sessions == null ? -1 : Arrays.asList(sessions).indexOf(primary);
+            if (slot < 0 || hedgeSession != hedge) {
+                return;
+            }
+            sessions[slot] = hedge;
+            hedgeSession = primary;
+            log.info("hedged read answered by {} first, switch to it", hedge.getHost().getAddress());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String getUser() {
+        return this.properties.getProperty(NebulaPropertyKey.USER.getKeyName());
+    }
+
+    private String getPassword() {
+        return this.properties.getProperty(NebulaPropertyKey.PASSWORD.getKeyName());
+    }
+
+    /**
+     * whether a session hit an io error, a broken session should not be reused by a pool.
+     */
+    boolean hasSessionError() {
+        return hasSessionError;
+    }
+
+    /**
+     * the time in millis a session last talked to graphd successfully, 0 if none did.
+     */
+    public long getLastVerifiedTime() {
+        return lastVerifiedTime;
+    }
+
     private void checkClosed() throws SQLException {
         if (this.isClosed()) {
             throw new SQLException("Connection already closed.");
@@ -127,12 +1032,22 @@ public class NebulaConnection implements Connection {
 
     @Override
     public void close() throws SQLException {
-        this.checkClosed();
-        this.nebulaSession.release();
-        this.isClosed = true;
-        this.nebulaPool.close();
-        log.info("JDBCConnection closed");
+        lock.lock();
+        try {
+            this.checkClosed();
+            this.isClosed = true;
+            cancelKeepAlive();
+            if (sharedSessionPool != null) {
+                sharedSessionPool.release();
+            } else if (sharedPool != null) {
+                releaseSessions();
+                this.sharedPool.release();
+            }
+            log.info("JDBCConnection closed");
 
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
@@ -172,7 +1087,7 @@ public class NebulaConnection implements Connection {
     @Override
     public PreparedStatement prepareStatement(String rawNGQL) throws SQLException {
         this.checkClosed();
-        return new NebulaPreparedStatementImpl(this, rawNGQL);
+        return new NebulaPreparedStatementImpl(this, templateCache.get(rawNGQL));
     }
 
     @Override
@@ -202,7 +1117,7 @@ public class NebulaConnection implements Connection {
 
     @Override
     public String getSchema() throws SQLException {
-        return this.properties.getProperty(NebulaPropertyKey.DBNAME.getKeyName());
+        return graphSpace;
     }
 
     @Override
@@ -215,15 +1130,45 @@ public class NebulaConnection implements Connection {
         return (String) (getClientInfo().getOrDefault(name, "null"));
     }
 
+    /**
+     * switch to the graph space lazily, the sessions run the USE together with their next
+     * statement. In session pool mode the pool of the new space is acquired by the next statement.
+     */
     @Override
     public void setSchema(String schema) throws SQLException {
-        properties.setProperty(NebulaPropertyKey.DBNAME.getKeyName(), schema);
+        lock.lock();
+        try {
+            properties.setProperty(NebulaPropertyKey.DBNAME.getKeyName(), schema);
+            if (schema.equals(graphSpace)) {
+                return;
+            }
+            graphSpace = schema;
+            if (sharedSessionPool != null) {
+                sharedSessionPool.release();
+                sharedSessionPool = null;
+                sessionOpened = false;
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     public Properties getConnectionConfig() {
         return this.properties;
     }
 
+    public NebulaConfig getNebulaConfig() {
+        return this.config;
+    }
+
+    /**
+     * the executor running executeAsync: asyncExecutor when set, else the driver worker threads.
+     */
+    public Executor getAsyncExecutor() {
+        Executor executor = config.getAsyncExecutor();
+        return executor != null ? executor : poolRegistry.getExecutor();
+    }
+
 
     @Override
     public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
@@ -391,18 +1336,37 @@ public class NebulaConnection implements Connection {
             return false;
         }
 
-        Statement statement = null;
+        if (hasSessionError) {
+            return false;
+        }
+        int validationWindow = config.getValidationWindow();
+        if (validationWindow > 0 && System.currentTimeMillis() - lastVerifiedTime < validationWindow) {
+            return true;
+        }
+        if (timeout == 0) {
+            return ping();
+        }
+        Future<Boolean> ping = poolRegistry.getExecutor().submit(this::ping);
+        try {
+            return ping.get(timeout, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            // a slow reply is no broken session, only this check fails
+            log.warn("ping graphd timed out after {} s", timeout);
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean ping() {
         try {
-            statement = createStatement();
-            if (statement.execute("YIELD 1")) {
-                return true;
-            } else {
-                return false;
-            }
-        } finally {
-            if (statement != null) {
-                statement.close();
-            }
+            return execute("YIELD 1").isSucceeded();
+        } catch (SQLException e) {
+            log.warn("ping graphd failed: {}", e.getMessage());
+            return false;
         }
     }
 
@@ -0,0 +1,117 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc;
+
+import static com.vesoft.nebula.jdbc.utils.NebulaJdbcUrlParser.JDBC_NEBULA_PREFIX;
+import com.vesoft.nebula.jdbc.utils.ExceptionBuilder;
+import com.vesoft.nebula.jdbc.utils.NebulaPropertyKey;
+import java.io.PrintWriter;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import javax.sql.ConnectionPoolDataSource;
+
+/**
+ * Factory of {@link NebulaPooledConnection}s, the physical connections take their NebulaPool from
+ * the driver's registry.
+ */
+public class NebulaConnectionPoolDataSource implements ConnectionPoolDataSource {
+
+    private String url;
+    private String user;
+    private String password;
+    private Properties properties = new Properties();
+    private PrintWriter logWriter;
+    private int loginTimeout = 0;
+
+    public NebulaConnectionPoolDataSource() {
+    }
+
+    public NebulaConnectionPoolDataSource(String url, String user, String password, Properties properties) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        if (properties != null) {
+            this.properties.putAll(properties);
+        }
+    }
+
+    @Override
+    public NebulaPooledConnection getPooledConnection() throws SQLException {
+        return getPooledConnection(user, password);
+    }
+
+    @Override
+    public NebulaPooledConnection getPooledConnection(String user, String password) throws SQLException {
+        if (url == null || !url.startsWith(JDBC_NEBULA_PREFIX)) {
+            throw new SQLException("url: " + url + " is not accepted, " +
+                    "url example: jdbc:nebula://host_ip1:port,host_ip2:port/graphSpace");
+        }
+        Properties info = new Properties();
+        info.putAll(properties);
+        if (user != null) {
+            info.setProperty(NebulaPropertyKey.USER.getKeyName(), user);
+        }
+        if (password != null) {
+            info.setProperty(NebulaPropertyKey.PASSWORD.getKeyName(), password);
+        }
+        return new NebulaPooledConnection(new NebulaConnection(url, info, NebulaDriver.getPoolRegistry()));
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public void setUser(String user) {
+        this.user = user;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public Properties getProperties() {
+        return properties;
+    }
+
+    public void setProperties(Properties properties) {
+        this.properties = new Properties();
+        this.properties.putAll(properties);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return loginTimeout;
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw ExceptionBuilder.buildUnsupportedOperationException();
+    }
+}
@@ -0,0 +1,507 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc;
+
+import com.vesoft.nebula.jdbc.utils.ExceptionBuilder;
+import com.vesoft.nebula.jdbc.utils.NamedThreadFactory;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pooled {@link DataSource} for NebulaGraph. Closing a connection got from it keeps the
+ * authenticated session, already switched to the graph space of the url, for the next caller, so
+ * a checkout costs neither an auth nor a {@code use <space>} round trip.
+ *
+ * <p>Waiters are woken in arrival order, though a caller arriving just as a connection is returned
+ * may take it ahead of them. Idle connections are reused most recently returned first,
+ * connections older than {@code maxLifetime} or with a broken session are closed instead of being
+ * reused, and the idle set is topped back up to {@code minIdle} in background.
+ */
+public class NebulaDataSource implements DataSource, AutoCloseable {
+
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+    public static final int DEFAULT_MAX_POOL_SIZE = 10;
+    public static final long DEFAULT_MAX_LIFETIME = TimeUnit.MINUTES.toMillis(30);
+    public static final long DEFAULT_CONNECTION_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+    private static final int MAX_WARM_UP_THREADS = 16;
+
+    private String url;
+    private String user;
+    private String password;
+    private Properties properties = new Properties();
+    private int minIdle = 0;
+    private int maxIdle = DEFAULT_MAX_POOL_SIZE;
+    private int maxPoolSize = DEFAULT_MAX_POOL_SIZE;
+    private long maxLifetime = DEFAULT_MAX_LIFETIME;
+    private long connectionTimeout = DEFAULT_CONNECTION_TIMEOUT;
+    private PrintWriter logWriter;
+    private int loginTimeout = 0;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition connectionAvailable = lock.newCondition();
+    private final Deque<NebulaPooledConnection> idleConnections = new ArrayDeque<>();
+    private final ConnectionEventListener recycler = new PoolConnectionEventListener();
+    private NebulaConnectionPoolDataSource connectionPoolDataSource;
+    private int totalConnections = 0;
+    private int creatingIdle = 0;
+    private volatile boolean isClosed = false;
+
+    public NebulaDataSource() {
+    }
+
+    public NebulaDataSource(String url, String user, String password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return borrow().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw ExceptionBuilder.buildUnsupportedOperationException();
+    }
+
+    private NebulaPooledConnection borrow() throws SQLException {
+        long timeout = getAcquireTimeout();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        NebulaConnectionPoolDataSource factory = getConnectionPoolDataSource();
+        while (true) {
+            NebulaPooledConnection stale = null;
+            lock.lock();
+            try {
+                checkClosed();
+                NebulaPooledConnection pooled = idleConnections.pollFirst();
+                if (pooled != null) {
+                    if (isReusable(pooled)) {
+                        return pooled;
+                    }
+                    totalConnections--;
+                    stale = pooled;
+                } else if (totalConnections < maxPoolSize) {
+                    totalConnections++;
+                } else {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SQLTimeoutException(String.format("Timeout after %d ms waiting for " +
+                                "a connection, all %d connections are in use.", timeout, maxPoolSize));
+                    }
+                    connectionAvailable.awaitNanos(remaining);
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection.", e);
+            } finally {
+                lock.unlock();
+            }
+
+            if (stale != null) {
+                closeQuietly(stale);
+                topUpMinIdle();
+                continue;
+            }
+            return createPooledConnection(factory);
+        }
+    }
+
+    /**
+     * connectionTimeout, bounded by loginTimeout when that is set.
+     */
+    private long getAcquireTimeout() {
+        return loginTimeout > 0 ? Math.min(connectionTimeout, TimeUnit.SECONDS.toMillis(loginTimeout))
+                : connectionTimeout;
+    }
+
+    /**
+     * create a physical connection for a slot that has already been counted in totalConnections.
+     */
+    private NebulaPooledConnection createPooledConnection(NebulaConnectionPoolDataSource factory) throws SQLException {
+        try {
+            NebulaPooledConnection pooled = factory.getPooledConnection();
+            pooled.addConnectionEventListener(recycler);
+            return pooled;
+        } catch (SQLException | RuntimeException e) {
+            discardSlot();
+            throw e;
+        }
+    }
+
+    private void recycle(NebulaPooledConnection pooled) {
+        boolean reuse;
+        lock.lock();
+        try {
+            reuse = !isClosed && idleConnections.size() < maxIdle && isReusable(pooled);
+            if (reuse) {
+                idleConnections.offerFirst(pooled);
+            } else {
+                totalConnections--;
+            }
+            connectionAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (!reuse) {
+            closeQuietly(pooled);
+            topUpMinIdle();
+        }
+    }
+
+    private void discard(NebulaPooledConnection pooled) {
+        discardSlot();
+        closeQuietly(pooled);
+        topUpMinIdle();
+    }
+
+    private void discardSlot() {
+        lock.lock();
+        try {
+            totalConnections--;
+            connectionAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isReusable(NebulaPooledConnection pooled) {
+        try {
+            NebulaConnection connection = pooled.getPhysicalConnection();
+            return !connection.isClosed() && !connection.hasSessionError()
+                    && System.currentTimeMillis() - pooled.getCreationTime() < maxLifetime;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void closeQuietly(NebulaPooledConnection pooled) {
+        pooled.removeConnectionEventListener(recycler);
+        try {
+            pooled.close();
+        } catch (SQLException e) {
+            log.warn("close pooled connection failed", e);
+        }
+    }
+
+    private NebulaConnectionPoolDataSource getConnectionPoolDataSource() throws SQLException {
+        NebulaConnectionPoolDataSource factory;
+        lock.lock();
+        try {
+            checkClosed();
+            if (connectionPoolDataSource != null) {
+                return connectionPoolDataSource;
+            }
+            connectionPoolDataSource = new NebulaConnectionPoolDataSource(url, user, password, properties);
+            factory = connectionPoolDataSource;
+        } finally {
+            lock.unlock();
+        }
+        fillMinIdle(factory);
+        return factory;
+    }
+
+    /**
+     * open connections in parallel until minIdle of them are idle. Failed ones are logged and
+     * their slots given back, the pool then simply grows on demand.
+     */
+    private void fillMinIdle(NebulaConnectionPoolDataSource factory) {
+        int missing;
+        lock.lock();
+        try {
+            missing = Math.min(minIdle - idleConnections.size(), maxPoolSize - totalConnections);
+            if (isClosed || missing <= 0) {
+                return;
+            }
+            totalConnections += missing;
+        } finally {
+            lock.unlock();
+        }
+
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(missing, MAX_WARM_UP_THREADS),
+                new NamedThreadFactory("nebula-jdbc-datasource-warm-up"));
+        List<Future<NebulaPooledConnection>> futures = new ArrayList<>(missing);
+        for (int i = 0; i < missing; i++) {
+            futures.add(executor.submit(() -> createPooledConnection(factory)));
+        }
+        executor.shutdown();
+        int opened = 0;
+        for (Future<NebulaPooledConnection> future : futures) {
+            try {
+                NebulaPooledConnection pooled = future.get();
+                recycle(pooled);
+                opened++;
+            } catch (ExecutionException e) {
+                log.warn("open connection for minIdle failed: {}", e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        log.info("NebulaDataSource opened {} of {} idle connections in {} ms", opened, missing,
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * after a connection was closed instead of reused, open new ones on the driver executor until
+     * minIdle are idle again. It does not wait for them, a failure is logged and the slot given back.
+     */
+    private void topUpMinIdle() {
+        NebulaConnectionPoolDataSource factory;
+        int missing;
+        lock.lock();
+        try {
+            factory = connectionPoolDataSource;
+            missing = Math.min(minIdle - idleConnections.size() - creatingIdle, maxPoolSize - totalConnections);
+            if (isClosed || factory == null || missing <= 0) {
+                return;
+            }
+            totalConnections += missing;
+            creatingIdle += missing;
+        } finally {
+            lock.unlock();
+        }
+        for (int i = 0; i < missing; i++) {
+            Runnable create = () -> {
+                try {
+                    recycle(createPooledConnection(factory));
+                } catch (SQLException | RuntimeException e) {
+                    log.warn("open connection for minIdle failed: {}", e.getMessage());
+                } finally {
+                    lock.lock();
+                    try {
+                        creatingIdle--;
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            };
+            try {
+                NebulaDriver.getPoolRegistry().getExecutor().execute(create);
+            } catch (RejectedExecutionException e) {
+                lock.lock();
+                try {
+                    creatingIdle--;
+                } finally {
+                    lock.unlock();
+                }
+                discardSlot();
+            }
+        }
+    }
+
+    /**
+     * open minIdle connections in parallel now instead of on the first getConnection(), so the
+     * first requests after a start do not pay for them.
+     */
+    public void init() throws SQLException {
+        getConnectionPoolDataSource();
+    }
+
+    /**
+     * close every idle connection, connections in use are closed when they are given back.
+     */
+    @Override
+    public void close() {
+        List<NebulaPooledConnection> toClose;
+        lock.lock();
+        try {
+            isClosed = true;
+            toClose = new ArrayList<>(idleConnections);
+            totalConnections -= idleConnections.size();
+            idleConnections.clear();
+            connectionAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (NebulaPooledConnection pooled : toClose) {
+            closeQuietly(pooled);
+        }
+        log.info("NebulaDataSource closed");
+    }
+
+    public boolean isClosed() {
+        return isClosed;
+    }
+
+    private void checkClosed() throws SQLException {
+        if (isClosed) {
+            throw new SQLException("DataSource already closed.");
+        }
+    }
+
+    public int getIdleConnections() {
+        lock.lock();
+        try {
+            return idleConnections.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getTotalConnections() {
+        lock.lock();
+        try {
+            return totalConnections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public void setUser(String user) {
+        this.user = user;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public Properties getProperties() {
+        return properties;
+    }
+
+    public void setProperties(Properties properties) {
+        this.properties = new Properties();
+        this.properties.putAll(properties);
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    public void setMaxIdle(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public long getMaxLifetime() {
+        return maxLifetime;
+    }
+
+    /**
+     * @param maxLifetime max lifetime of a physical connection in milliseconds
+     */
+    public void setMaxLifetime(long maxLifetime) {
+        this.maxLifetime = maxLifetime;
+    }
+
+    public long getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    /**
+     * @param connectionTimeout max milliseconds getConnection() waits when the pool is exhausted
+     */
+    public void setConnectionTimeout(long connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        this.logWriter = out;
+    }
+
+    /**
+     * @param seconds max seconds getConnection() waits, it bounds connectionTimeout. 0 means no bound.
+     */
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return loginTimeout;
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw ExceptionBuilder.buildUnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("DataSource is not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+
+    private class PoolConnectionEventListener implements ConnectionEventListener {
+
+        @Override
+        public void connectionClosed(ConnectionEvent event) {
+            recycle((NebulaPooledConnection) event.getSource());
+        }
+
+        @Override
+        public void connectionErrorOccurred(ConnectionEvent event) {
+            discard((NebulaPooledConnection) event.getSource());
+        }
+    }
+}
@@ -6,7 +6,11 @@
 package com.vesoft.nebula.jdbc;
 
 import static com.vesoft.nebula.jdbc.utils.NebulaJdbcUrlParser.JDBC_NEBULA_PREFIX;
+import com.vesoft.nebula.client.graph.data.HostAddress;
+import com.vesoft.nebula.jdbc.pool.NebulaPoolRegistry;
+import com.vesoft.nebula.jdbc.pool.SharedNebulaPool;
 import com.vesoft.nebula.jdbc.utils.ExceptionBuilder;
+import com.vesoft.nebula.jdbc.utils.NebulaConfig;
 import com.vesoft.nebula.jdbc.utils.NebulaJdbcUrlParser;
 import java.net.URISyntaxException;
 import java.sql.DriverPropertyInfo;
@@ -18,7 +22,9 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.Properties;
 
 public class NebulaDriver implements java.sql.Driver {
@@ -27,16 +33,52 @@ public class NebulaDriver implements java.sql.Driver {
 
     public static final String DRIVER_NAME = "Nebula JDBC Driver";
 
+    /** pools shared by every connection this driver creates, keyed by address list and pool config. */
+    private static final NebulaPoolRegistry POOL_REGISTRY = new NebulaPoolRegistry();
+
     static {
         try {
             NebulaDriver driver = new NebulaDriver();
-            DriverManager.registerDriver(driver);
+            // deregistering the driver, e.g. when a web application is undeployed, closes its pools
+            DriverManager.registerDriver(driver, POOL_REGISTRY::closeAll);
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
         log.info("Driver registered");
     }
 
+    /** pools warmed up by {@link #warmUp}, kept open for the lifetime of the driver. */
+    private static final Set<SharedNebulaPool> WARMED_POOLS = new HashSet<>();
+
+    public static NebulaPoolRegistry getPoolRegistry() {
+        return POOL_REGISTRY;
+    }
+
+    /**
+     * open minConnsSize connections, split over the graphd of the url and at least one to each, in parallel before
+     * the first connect, e.g. when the application starts. The pool stays open even while no
+     * connection uses it.
+     *
+     * @return the number of connections opened
+     */
+    public static int warmUp(String url, Properties info) throws SQLException {
+        Properties properties;
+        try {
+            properties = NebulaJdbcUrlParser.parse(url, info == null ? new Properties() : info);
+        } catch (URISyntaxException e) {
+            throw new SQLException(e);
+        }
+        NebulaConfig config = NebulaConfig.parse(properties);
+        List<HostAddress> addresses = NebulaJdbcUrlParser.getAddresses(url);
+        SharedNebulaPool sharedPool = POOL_REGISTRY.acquire(addresses, config);
+        synchronized (WARMED_POOLS) {
+            if (!WARMED_POOLS.add(sharedPool)) {
+                sharedPool.release();
+            }
+        }
+        return sharedPool.warmUp(config.getWarmUpConnectionsPerHost(addresses.size()));
+    }
+
     @Override
     public boolean acceptsURL(String url) throws SQLException {
         if (url == null) {
@@ -76,7 +118,7 @@ public class NebulaDriver implements java.sql.Driver {
                     "make sure your url match this format.");
 
         }
-        NebulaConnection JdbcConnection = new NebulaConnection(url, properties);
+        NebulaConnection JdbcConnection = new NebulaConnection(url, properties, POOL_REGISTRY);
         log.info("Get JDBCConnection succeeded");
         return JdbcConnection;
 
@@ -0,0 +1,267 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.PooledConnection;
+import javax.sql.StatementEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A physical {@link NebulaConnection} whose session is already authenticated and bound to the
+ * graph space. {@link #getConnection()} hands out logical handles; closing a handle closes the
+ * statements created through it, keeps the session and notifies the listeners so the owner can
+ * reuse it.
+ */
+public class NebulaPooledConnection implements PooledConnection {
+
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final NebulaConnection physicalConnection;
+    private final String initialSchema;
+    private final long creationTime;
+    private final List<ConnectionEventListener> connectionEventListeners = new CopyOnWriteArrayList<>();
+    private final List<StatementEventListener> statementEventListeners = new CopyOnWriteArrayList<>();
+    private LogicalConnectionHandler currentHandler;
+
+    public NebulaPooledConnection(NebulaConnection physicalConnection) throws SQLException {
+        this.physicalConnection = physicalConnection;
+        this.initialSchema = physicalConnection.getSchema();
+        this.creationTime = System.currentTimeMillis();
+    }
+
+    /**
+     * get a logical handle, any handle handed out before is closed first as required by the spec.
+     */
+    @Override
+    public synchronized Connection getConnection() throws SQLException {
+        if (physicalConnection.isClosed()) {
+            throw new SQLException("PooledConnection already closed.");
+        }
+        if (currentHandler != null) {
+            currentHandler.closeHandle();
+        }
+        currentHandler = new LogicalConnectionHandler();
+        Connection handle = (Connection) Proxy.newProxyInstance(NebulaConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, currentHandler);
+        currentHandler.handle = handle;
+        return handle;
+    }
+
+    @Override
+    public synchronized void close() throws SQLException {
+        if (currentHandler != null) {
+            currentHandler.closeHandle();
+            currentHandler = null;
+        }
+        if (!physicalConnection.isClosed()) {
+            physicalConnection.close();
+        }
+    }
+
+    public NebulaConnection getPhysicalConnection() {
+        return physicalConnection;
+    }
+
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    @Override
+    public void addConnectionEventListener(ConnectionEventListener listener) {
+        connectionEventListeners.add(listener);
+    }
+
+    @Override
+    public void removeConnectionEventListener(ConnectionEventListener listener) {
+        connectionEventListeners.remove(listener);
+    }
+
+    @Override
+    public void addStatementEventListener(StatementEventListener listener) {
+        statementEventListeners.add(listener);
+    }
+
+    @Override
+    public void removeStatementEventListener(StatementEventListener listener) {
+        statementEventListeners.remove(listener);
+    }
+
+    private synchronized void logicalClose(LogicalConnectionHandler handler) {
+        if (handler != currentHandler) {
+            return;
+        }
+        currentHandler = null;
+        if (physicalConnection.hasSessionError()) {
+            fireConnectionError(new SQLException("Session of the pooled connection is broken."));
+            return;
+        }
+        try {
+            if (!physicalConnection.isClosed()
+                    && !Objects.equals(physicalConnection.getSchema(), initialSchema)) {
+                physicalConnection.setSchema(initialSchema);
+            }
+        } catch (SQLException e) {
+            fireConnectionError(e);
+            return;
+        }
+        ConnectionEvent event = new ConnectionEvent(this);
+        for (ConnectionEventListener listener : connectionEventListeners) {
+            listener.connectionClosed(event);
+        }
+    }
+
+    private void fireConnectionError(SQLException e) {
+        log.warn("pooled connection will be discarded", e);
+        ConnectionEvent event = new ConnectionEvent(this, e);
+        for (ConnectionEventListener listener : connectionEventListeners) {
+            listener.connectionErrorOccurred(event);
+        }
+    }
+
+    /**
+     * logical handle on the physical connection, close() gives it back instead of releasing the session.
+     */
+    private class LogicalConnectionHandler implements InvocationHandler {
+
+        private volatile boolean isClosed = false;
+        private Connection handle;
+        private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+
+        /**
+         * mark the handle closed and close its statements, so none keeps running on the physical
+         * connection once it is handed to the next caller.
+         */
+        void closeHandle() {
+            isClosed = true;
+            for (Statement statement : statements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    log.warn("close statement of a logical connection failed", e);
+                }
+            }
+            statements.clear();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!isClosed) {
+                        closeHandle();
+                        logicalClose(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return isClosed || physicalConnection.isClosed();
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(physicalConnection);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(physicalConnection)) {
+                        return physicalConnection;
+                    }
+                    throw new SQLException("Connection is not a wrapper for " + args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Logical connection of " + physicalConnection;
+                default:
+                    break;
+            }
+            if (isClosed) {
+                throw new SQLException("Connection already closed.");
+            }
+            Object result;
+            try {
+                result = method.invoke(physicalConnection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement) {
+                Statement statement = (Statement) result;
+                statements.add(statement);
+                return Proxy.newProxyInstance(NebulaConnection.class.getClassLoader(),
+                        interfacesOf(statement.getClass()), new StatementHandler(this, statement));
+            }
+            return result;
+        }
+    }
+
+    private static Class<?>[] interfacesOf(Class<?> type) {
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Class<?> i : c.getInterfaces()) {
+                interfaces.add(i);
+            }
+        }
+        return interfaces.toArray(new Class<?>[0]);
+    }
+
+    /**
+     * statement created through a logical handle: getConnection() returns the handle, not the
+     * physical connection, and close() forgets it in the handle.
+     */
+    private static class StatementHandler implements InvocationHandler {
+
+        private final LogicalConnectionHandler connection;
+        private final Statement statement;
+
+        StatementHandler(LogicalConnectionHandler connection, Statement statement) {
+            this.connection = connection;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    return connection.handle;
+                case "close":
+                    connection.statements.remove(statement);
+                    statement.close();
+                    return null;
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(statement);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(statement)) {
+                        return statement;
+                    }
+                    throw new SQLException("Statement is not a wrapper for " + args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Statement of " + connection.handle;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -39,12 +39,37 @@ public class NebulaResultSet implements java.sql.ResultSet {
     private Statement statement;
 
     public NebulaResultSet(ResultSet nebulaResultSet, Statement statement) {
+        this(nebulaResultSet, statement, 0);
+    }
+
+    /**
+     * @param maxRows rows beyond it are dropped from the native result set, 0 keeps all of them
+     */
+    public NebulaResultSet(ResultSet nebulaResultSet, Statement statement, int maxRows) {
         this.nativeNebulaResultSet = nebulaResultSet;
         this.statement = statement;
         if(!nativeNebulaResultSet.isEmpty()){
             this.resultRowSize = nativeNebulaResultSet.rowsSize();
             this.columnNames = nativeNebulaResultSet.getColumnNames();
+            if (maxRows > 0 && resultRowSize > maxRows) {
+                // rows are decoded into records lazily, so the dropped ones are never decoded
+                nativeNebulaResultSet.getRows().subList(maxRows, resultRowSize).clear();
+                this.resultRowSize = maxRows;
+            }
+        }
+    }
+
+    /**
+     * replace the rows with the next page of a paged result, the cursor goes before its first row.
+     */
+    protected void nextPage(ResultSet page) {
+        this.nativeNebulaResultSet = page;
+        this.resultRowSize = page.isEmpty() ? 0 : page.rowsSize();
+        if (this.columnNames == null && !page.isEmpty()) {
+            this.columnNames = page.getColumnNames();
         }
+        this.currentRowNumber = -1;
+        this.currentRow = null;
     }
 
     public com.vesoft.nebula.client.graph.data.ResultSet getNativeNebulaResultSet() {
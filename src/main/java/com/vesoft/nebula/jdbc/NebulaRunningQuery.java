@@ -0,0 +1,59 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc;
+
+import com.vesoft.nebula.jdbc.pool.BalancedSession;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One statement in flight on a connection: the graphd sessions it is running on, so that
+ * {@link NebulaConnection#cancel(NebulaRunningQuery)} can kill it there. A hedged read runs on two
+ * sessions at once.
+ */
+public class NebulaRunningQuery {
+
+    private final Set<BalancedSession> sessions = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled = false;
+    private volatile boolean timedOut = false;
+
+    void started(BalancedSession session) {
+        sessions.add(session);
+    }
+
+    void finished(BalancedSession session) {
+        sessions.remove(session);
+    }
+
+    List<BalancedSession> getSessions() {
+        return new ArrayList<>(sessions);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * whether it was cancelled because queryTimeout passed.
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * cancel it without killing it in graphd, a statement not started yet then does not start.
+     */
+    public void markCancelled() {
+        markCancelled(false);
+    }
+
+    void markCancelled(boolean timeout) {
+        timedOut |= timeout;
+        cancelled = true;
+    }
+}
@@ -0,0 +1,76 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.balancer;
+
+/**
+ * Stops routing new sessions to a graphd after consecutive failures. Once openMillis have passed
+ * the host is half open: the next session is a trial, whose success closes the breaker and whose
+ * failure opens it again.
+ */
+public class CircuitBreaker {
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_OPEN_MILLIS = 10_000L;
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+
+    /**
+     * @param failureThreshold consecutive failures opening the breaker, 0 disables it
+     * @param openMillis how long an open breaker rejects the host
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * whether a new session may go to the host, does not change the state.
+     */
+    public synchronized boolean isAvailable() {
+        return state == State.CLOSED || System.currentTimeMillis() - openedAt >= openMillis;
+    }
+
+    /**
+     * the host was chosen, if the breaker is not closed this is the trial and other callers
+     * have to wait for its outcome or for another openMillis.
+     */
+    public synchronized void onSelected() {
+        if (state != State.CLOSED) {
+            state = State.HALF_OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        if (failureThreshold <= 0) {
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,85 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.balancer;
+
+import com.vesoft.nebula.client.graph.data.HostAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load observed on one graphd by the connections of a pool: requests in flight and an
+ * exponentially weighted moving average of their latency.
+ */
+public class HostStats {
+
+    /**
+     * weight of the newest sample, 0.3 forgets a slow period after about ten requests.
+     */
+    static final double EWMA_ALPHA = 0.3;
+
+    private final HostAddress address;
+    private final CircuitBreaker circuitBreaker;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private double ewmaMillis = 0;
+    private long samples = 0;
+
+    public HostStats(HostAddress address) {
+        this(address, new CircuitBreaker(CircuitBreaker.DEFAULT_FAILURE_THRESHOLD, CircuitBreaker.DEFAULT_OPEN_MILLIS));
+    }
+
+    public HostStats(HostAddress address, CircuitBreaker circuitBreaker) {
+        this.address = address;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * mark a request as started.
+     *
+     * @return the start time to pass to {@link #finish(long)}
+     */
+    public long start() {
+        outstanding.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * mark a request started at startNanos as finished and record its latency.
+     */
+    public void finish(long startNanos) {
+        outstanding.decrementAndGet();
+        record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos) / 1000.0);
+    }
+
+    synchronized void record(double latencyMillis) {
+        ewmaMillis = samples == 0 ? latencyMillis : EWMA_ALPHA * latencyMillis + (1 - EWMA_ALPHA) * ewmaMillis;
+        samples++;
+    }
+
+    public HostAddress getAddress() {
+        return address;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * the latency average in milliseconds, 0 if no request finished on the host yet.
+     */
+    public synchronized double getEwmaMillis() {
+        return ewmaMillis;
+    }
+
+    @Override
+    public String toString() {
+        return address.getHost() + ":" + address.getPort() + "{outstanding=" + getOutstanding()
+                + ", ewmaMillis=" + String.format("%.2f", getEwmaMillis()) + "}";
+    }
+}
@@ -0,0 +1,32 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.balancer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pick the host with the fewest requests in flight, ties are broken round robin so an idle
+ * cluster is still spread evenly.
+ */
+public class LeastOutstandingBalancer implements NebulaBalancer {
+
+    private final AtomicInteger offset = new AtomicInteger();
+
+    @Override
+    public HostStats select(List<HostStats> hosts) {
+        int size = hosts.size();
+        int start = Math.floorMod(offset.getAndIncrement(), size);
+        HostStats best = null;
+        for (int i = 0; i < size; i++) {
+            HostStats host = hosts.get((start + i) % size);
+            if (best == null || host.getOutstanding() < best.getOutstanding()) {
+                best = host;
+            }
+        }
+        return best;
+    }
+}
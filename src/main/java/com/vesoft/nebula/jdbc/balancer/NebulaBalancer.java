@@ -0,0 +1,26 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.balancer;
+
+import java.util.List;
+
+/**
+ * Decides which graphd a new session goes to. One instance is shared by every connection of a
+ * pool, so implementations must be thread safe.
+ *
+ * <p>Set the url property {@code loadBalancer} to one of {@code roundRobin},
+ * {@code leastOutstanding}, {@code p2c}, or to the class name of an implementation with a public
+ * no-arg constructor.
+ */
+public interface NebulaBalancer {
+
+    /**
+     * pick one of the hosts.
+     *
+     * @param hosts the candidates, never empty
+     */
+    HostStats select(List<HostStats> hosts);
+}
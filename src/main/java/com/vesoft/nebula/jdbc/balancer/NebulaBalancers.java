@@ -0,0 +1,57 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.balancer;
+
+import java.sql.SQLException;
+
+/**
+ * Build a {@link NebulaBalancer} from the value of the {@code loadBalancer} property.
+ */
+public class NebulaBalancers {
+
+    public static final String ROUND_ROBIN = "roundRobin";
+    public static final String LEAST_OUTSTANDING = "leastOutstanding";
+    public static final String POWER_OF_TWO_CHOICES = "p2c";
+
+    private NebulaBalancers() {
+    }
+
+    /**
+     * check the name and return it in its canonical spelling.
+     */
+    public static String normalize(String name) throws SQLException {
+        if (name == null || ROUND_ROBIN.equalsIgnoreCase(name)) {
+            return ROUND_ROBIN;
+        } else if (LEAST_OUTSTANDING.equalsIgnoreCase(name)) {
+            return LEAST_OUTSTANDING;
+        } else if (POWER_OF_TWO_CHOICES.equalsIgnoreCase(name)) {
+            return POWER_OF_TWO_CHOICES;
+        }
+        create(name);
+        return name;
+    }
+
+    public static NebulaBalancer create(String name) throws SQLException {
+        if (name == null || ROUND_ROBIN.equalsIgnoreCase(name)) {
+            return new RoundRobinBalancer();
+        } else if (LEAST_OUTSTANDING.equalsIgnoreCase(name)) {
+            return new LeastOutstandingBalancer();
+        } else if (POWER_OF_TWO_CHOICES.equalsIgnoreCase(name)) {
+            return new PowerOfTwoChoicesBalancer();
+        }
+        try {
+            Class<?> balancerClass = Class.forName(name);
+            if (!NebulaBalancer.class.isAssignableFrom(balancerClass)) {
+                throw new SQLException(String.format("%s does not implement %s.", name,
+                        NebulaBalancer.class.getName()));
+            }
+            return (NebulaBalancer) balancerClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new SQLException(String.format("loadBalancer [%s] should be one of [%s, %s, %s] or a "
+                    + "class name of NebulaBalancer.", name, ROUND_ROBIN, LEAST_OUTSTANDING, POWER_OF_TWO_CHOICES), e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.balancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power of two choices: sample two hosts at random and take the cheaper one, the cost being the
+ * latency average weighted by the requests in flight. Sampling keeps a single hot graphd from
+ * receiving every new session the moment it looks best, which a global minimum would do.
+ */
+public class PowerOfTwoChoicesBalancer implements NebulaBalancer {
+
+    @Override
+    public HostStats select(List<HostStats> hosts) {
+        int size = hosts.size();
+        if (size == 1) {
+            return hosts.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        HostStats a = hosts.get(first);
+        HostStats b = hosts.get(second);
+        return cost(a) <= cost(b) ? a : b;
+    }
+
+    /**
+     * a host without samples costs nothing, so it gets probed as soon as it is drawn.
+     */
+    static double cost(HostStats host) {
+        return host.getEwmaMillis() * (host.getOutstanding() + 1);
+    }
+}
@@ -0,0 +1,22 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.balancer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hand out the hosts in turn, regardless of their load.
+ */
+public class RoundRobinBalancer implements NebulaBalancer {
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    public HostStats select(List<HostStats> hosts) {
+        return hosts.get(Math.floorMod(next.getAndIncrement(), hosts.size()));
+    }
+}
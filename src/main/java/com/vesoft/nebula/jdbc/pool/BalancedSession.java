@@ -0,0 +1,141 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.pool;
+
+import com.vesoft.nebula.client.graph.data.ResultSet;
+import com.vesoft.nebula.client.graph.exception.IOErrorException;
+import com.vesoft.nebula.client.graph.net.Session;
+import com.vesoft.nebula.jdbc.balancer.HostStats;
+import java.io.UnsupportedEncodingException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A session checked out from a {@link SharedNebulaPool}, every request through it is counted in
+ * the load of its graphd.
+ */
+public class BalancedSession {
+
+    private final Session session;
+    private final HostStats host;
+    private volatile long sessionId = -1;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile String space;
+    private volatile boolean broken = false;
+    private volatile long lastSuccessTime = System.currentTimeMillis();
+
+    BalancedSession(Session session, HostStats host) {
+        this.session = session;
+        this.host = host;
+    }
+
+    public ResultSet execute(String nGql) throws IOErrorException {
+        return execute(nGql, null);
+    }
+
+    /**
+     * @param parameters values of the $name parameters in nGql, null when it has none
+     */
+    public ResultSet execute(String nGql, Map<String, Object> parameters) throws IOErrorException {
+        long start = host.start();
+        inFlight.incrementAndGet();
+        try {
+            ResultSet result = parameters == null ? session.execute(nGql)
+                    : session.executeWithParameter(nGql, parameters);
+            host.getCircuitBreaker().recordSuccess();
+            lastSuccessTime = System.currentTimeMillis();
+            return result;
+        } catch (IOErrorException e) {
+            host.getCircuitBreaker().recordFailure();
+            broken = true;
+            throw e;
+        } finally {
+            inFlight.decrementAndGet();
+            host.finish(start);
+        }
+    }
+
+    /**
+     * run nGql and learn the id of the session in the same request. The 3.3 client keeps the id
+     * private, so a marker is yielded and the id read from the SHOW LOCAL QUERIES row of the
+     * request carrying it.
+     *
+     * @return the result of the request, it succeeded if nGql did
+     */
+    public ResultSet executeIdentified(String nGql) throws IOErrorException {
+        String marker = "jdbc-" + UUID.randomUUID();
+        ResultSet result = execute(nGql + ";YIELD \"" + marker + "\";SHOW LOCAL QUERIES");
+        if (!result.isSucceeded()) {
+            return result;
+        }
+        try {
+            for (int i = 0; i < result.rowsSize(); i++) {
+                ResultSet.Record row = result.rowValues(i);
+                if (row.get("Query").asString().contains(marker)) {
+                    sessionId = row.get("SessionID").asLong();
+                    break;
+                }
+            }
+        } catch (UnsupportedEncodingException | RuntimeException e) {
+            // the id stays unknown, a query of the session can not be killed then
+        }
+        return result;
+    }
+
+    /**
+     * the id of the session in graphd, -1 if it was not learned by
+     * {@link #executeIdentified(String)}.
+     */
+    public long getSessionId() {
+        return sessionId;
+    }
+
+    public void release() {
+        session.release();
+    }
+
+    public Session getSession() {
+        return session;
+    }
+
+    public HostStats getHost() {
+        return host;
+    }
+
+    /**
+     * requests running on the session right now.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * the graph space the session was switched to, null if it is unknown.
+     */
+    public String getSpace() {
+        return space;
+    }
+
+    public void setSpace(String space) {
+        this.space = space;
+    }
+
+    /**
+     * whether a request hit an io error, the session should not be used again.
+     */
+    public boolean isBroken() {
+        return broken;
+    }
+
+    public void markBroken() {
+        broken = true;
+    }
+
+    public long getLastSuccessTime() {
+        return lastSuccessTime;
+    }
+}
@@ -0,0 +1,60 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.pool;
+
+import java.util.Arrays;
+
+/**
+ * The latencies of the most recent requests, used to tell when a request is slower than usual.
+ */
+class LatencyWindow {
+
+    /**
+     * percentiles of fewer samples say too little to act on.
+     */
+    static final int MIN_SAMPLES = 32;
+
+    /**
+     * the sorted copy is rebuilt after this many new samples instead of on every lookup.
+     */
+    private static final int RESORT_INTERVAL = 16;
+
+    private final long[] samples;
+    private long[] sorted = new long[0];
+    private int count = 0;
+    private int next = 0;
+    private int unsorted = 0;
+
+    LatencyWindow(int size) {
+        this.samples = new long[size];
+    }
+
+    synchronized void record(long latencyMicros) {
+        samples[next] = latencyMicros;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        unsorted++;
+    }
+
+    /**
+     * @return the latency below which the given percentage of the samples fall, -1 if there are
+     * not enough samples yet
+     */
+    synchronized long percentile(double percent) {
+        if (count < MIN_SAMPLES) {
+            return -1;
+        }
+        if (unsorted >= RESORT_INTERVAL || sorted.length != count) {
+            sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            unsorted = 0;
+        }
+        int index = (int) Math.ceil(percent / 100 * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))];
+    }
+}
@@ -0,0 +1,424 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.pool;
+
+import com.vesoft.nebula.client.graph.NebulaPoolConfig;
+import com.vesoft.nebula.client.graph.SessionPool;
+import com.vesoft.nebula.client.graph.SessionPoolConfig;
+import com.vesoft.nebula.client.graph.data.CASignedSSLParam;
+import com.vesoft.nebula.client.graph.data.HostAddress;
+import com.vesoft.nebula.client.graph.data.SSLParam;
+import com.vesoft.nebula.client.graph.data.SelfSignedSSLParam;
+import com.vesoft.nebula.client.graph.exception.InvalidConfigException;
+import com.vesoft.nebula.client.graph.net.NebulaPool;
+import com.vesoft.nebula.jdbc.balancer.CircuitBreaker;
+import com.vesoft.nebula.jdbc.balancer.HostStats;
+import com.vesoft.nebula.jdbc.balancer.NebulaBalancers;
+import com.vesoft.nebula.jdbc.utils.NamedThreadFactory;
+import com.vesoft.nebula.jdbc.utils.NebulaConfig;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Driver-level registry of {@link NebulaPool}s and {@link SessionPool}s. Connections to the same
+ * address list with the same pool configuration share one pool instead of building their own
+ * sockets and threads.
+ *
+ * <p>Pools are reference counted: every {@link #acquire} must be paired with one
+ * {@link SharedPool#release()}. A pool whose count drops to zero is kept open for
+ * {@code lingerMillis} so that request-per-connection workloads do not rebuild it on every
+ * connect, and is closed once the linger elapses without a new acquirer.
+ */
+public class NebulaPoolRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(NebulaPoolRegistry.class);
+
+    public static final long DEFAULT_LINGER_MILLIS = 30_000L;
+
+    private final Map<String, SharedPool> pools = new HashMap<>();
+    /**
+     * pools being created, by key. Creating one connects to graphd, so it runs outside the lock
+     * and other acquirers of the same key wait for its future.
+     */
+    private final Map<String, CompletableFuture<SharedPool>> creating = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long lingerMillis;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService executor;
+
+    public NebulaPoolRegistry() {
+        this(DEFAULT_LINGER_MILLIS);
+    }
+
+    public NebulaPoolRegistry(long lingerMillis) {
+        this.lingerMillis = lingerMillis;
+    }
+
+    /**
+     * get the shared pool for the given addresses and config, creating and initializing it if
+     * there is none yet. The caller owns one reference and must release it.
+     */
+    public SharedNebulaPool acquire(List<HostAddress> addresses,
+                                    NebulaPoolConfig config) throws SQLException {
+        return acquire(addresses, config, NebulaBalancers.ROUND_ROBIN,
+                CircuitBreaker.DEFAULT_FAILURE_THRESHOLD, CircuitBreaker.DEFAULT_OPEN_MILLIS);
+    }
+
+    /**
+     * get the shared pool for the addresses with the pool, balancer and circuit breaker settings
+     * of the connection config.
+     */
+    public SharedNebulaPool acquire(List<HostAddress> addresses, NebulaConfig config) throws SQLException {
+        return acquire(addresses, config.toNebulaPoolConfig(), config.getLoadBalancer(),
+                config.getCircuitBreakerFailures(), config.getCircuitBreakerOpenTime());
+    }
+
+    private SharedNebulaPool acquire(List<HostAddress> addresses, NebulaPoolConfig config, String balancer,
+                                     int breakerFailures, long breakerOpenMillis) throws SQLException {
+        String key = poolKey(addresses, config) + ",balancer=" + balancer
+                + ",breaker=" + breakerFailures + "/" + breakerOpenMillis;
+        return acquire(SharedNebulaPool.class, key, () -> new SharedNebulaPool(this, key,
+                createPools(addresses, config, breakerFailures, breakerOpenMillis), NebulaBalancers.create(balancer)));
+    }
+
+    /**
+     * get the shared session pool of the user on the graph space, its sessions are bound to the
+     * space when they are created. The caller owns one reference and must release it.
+     */
+    public SharedSessionPool acquireSessionPool(SessionPoolConfig config) throws SQLException {
+        String key = sessionPoolKey(config);
+        return acquire(SharedSessionPool.class, key,
+                () -> new SharedSessionPool(this, key, createSessionPool(config), config.getSpaceName()));
+    }
+
+    /**
+     * the pool of the key, created by the first acquirer outside the lock, so connects to other
+     * clusters do not wait behind a slow graphd.
+     */
+    private <T extends SharedPool> T acquire(Class<T> poolType, String key,
+                                             PoolFactory<T> factory) throws SQLException {
+        while (true) {
+            CompletableFuture<SharedPool> pending;
+            boolean create = false;
+            lock.lock();
+            try {
+                SharedPool sharedPool = pools.get(key);
+                if (sharedPool != null) {
+                    sharedPool.retain();
+                    return poolType.cast(sharedPool);
+                }
+                pending = creating.get(key);
+                if (pending == null) {
+                    pending = new CompletableFuture<>();
+                    creating.put(key, pending);
+                    create = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (create) {
+                return create(poolType, key, factory, pending);
+            }
+            await(pending);
+            // the pool is in the map now, unless its creator already released it
+        }
+    }
+
+    private <T extends SharedPool> T create(Class<T> poolType, String key, PoolFactory<T> factory,
+                                            CompletableFuture<SharedPool> pending) throws SQLException {
+        T sharedPool;
+        try {
+            sharedPool = factory.create();
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                creating.remove(key);
+            } finally {
+                lock.unlock();
+            }
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        lock.lock();
+        try {
+            creating.remove(key);
+            pools.put(key, sharedPool);
+            sharedPool.retain();
+        } finally {
+            lock.unlock();
+        }
+        pending.complete(sharedPool);
+        return sharedPool;
+    }
+
+    private static void await(CompletableFuture<SharedPool> pending) throws SQLException {
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the pool to be created.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("Creating the pool failed.", e.getCause());
+        }
+    }
+
+    void release(SharedPool sharedPool) {
+        lock.lock();
+        try {
+            if (sharedPool.unretain() > 0 || pools.get(sharedPool.getKey()) != sharedPool) {
+                return;
+            }
+            if (lingerMillis <= 0) {
+                closePool(sharedPool);
+                return;
+            }
+            sharedPool.setCloseTask(getScheduler().schedule(() -> closeIfUnused(sharedPool),
+                    lingerMillis, TimeUnit.MILLISECONDS));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeIfUnused(SharedPool sharedPool) {
+        lock.lock();
+        try {
+            if (sharedPool.getRefCount() == 0 && pools.get(sharedPool.getKey()) == sharedPool) {
+                closePool(sharedPool);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closePool(SharedPool sharedPool) {
+        pools.remove(sharedPool.getKey());
+        sharedPool.close();
+        log.info("Pool for {} closed, no connection uses it any more", sharedPool.getKey());
+    }
+
+    /**
+     * close every pool regardless of its reference count, {@link com.vesoft.nebula.jdbc.NebulaDriver}
+     * does it when it is deregistered from DriverManager.
+     */
+    public void closeAll() {
+        lock.lock();
+        try {
+            for (SharedPool sharedPool : pools.values()) {
+                sharedPool.close();
+            }
+            pools.clear();
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+                scheduler = null;
+            }
+            if (executor != null) {
+                executor.shutdown();
+                executor = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return pools.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * daemon threads for blocking calls the driver bounds by a timeout, like the ping of isValid,
+     * and for executeAsync when no asyncExecutor is set.
+     */
+    public ExecutorService getExecutor() {
+        lock.lock();
+        try {
+            if (executor == null) {
+                executor = Executors.newCachedThreadPool(new NamedThreadFactory("nebula-jdbc-worker"));
+            }
+            return executor;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * the driver scheduler closing lingering pools and running session keepalive checks, tasks
+     * must hand blocking work to {@link #getExecutor()}.
+     */
+    public ScheduledExecutorService getScheduler() {
+        lock.lock();
+        try {
+            if (scheduler == null) {
+                scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("nebula-jdbc-scheduler"));
+            }
+            return scheduler;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * one pool per host, each with its share of the connection limits, see {@link #forHost}.
+     */
+    private Map<HostStats, WarmableNebulaPool> createPools(List<HostAddress> addresses, NebulaPoolConfig config,
+                                                           int breakerFailures, long breakerOpenMillis)
+            throws SQLException {
+        Map<HostStats, WarmableNebulaPool> hostPools = new LinkedHashMap<>();
+        long start = System.currentTimeMillis();
+        try {
+            for (int i = 0; i < addresses.size(); i++) {
+                HostAddress address = addresses.get(i);
+                WarmableNebulaPool nebulaPool = new WarmableNebulaPool();
+                hostPools.put(new HostStats(address, new CircuitBreaker(breakerFailures, breakerOpenMillis)),
+                        nebulaPool);
+                if (!nebulaPool.init(Collections.singletonList(address), forHost(config, i, addresses.size()))) {
+                    log.warn("graphd {}:{} is not reachable now", address.getHost(), address.getPort());
+                }
+            }
+        } catch (UnknownHostException | InvalidConfigException e) {
+            for (WarmableNebulaPool nebulaPool : hostPools.values()) {
+                nebulaPool.close();
+            }
+            throw new SQLException(e);
+        }
+        long end = System.currentTimeMillis();
+        log.info("NebulaPool.init(addressList, nebulaPoolConfig) use " + (end - start) + " ms");
+        return hostPools;
+    }
+
+    /**
+     * the pool config of the host at index: minConnSize and maxConnSize limit the connections to
+     * the whole cluster, as they did with a single pool, so they are split over the hosts. Every
+     * host may open at least one connection.
+     */
+    static NebulaPoolConfig forHost(NebulaPoolConfig config, int index, int hosts) {
+        NebulaPoolConfig hostConfig = new NebulaPoolConfig()
+                .setMinConnSize(share(config.getMinConnSize(), index, hosts))
+                .setMaxConnSize(Math.max(1, share(config.getMaxConnSize(), index, hosts)))
+                .setTimeout(config.getTimeout())
+                .setIdleTime(config.getIdleTime())
+                .setIntervalIdle(config.getIntervalIdle())
+                .setWaitTime(config.getWaitTime())
+                .setMinClusterHealthRate(config.getMinClusterHealthRate());
+        hostConfig.setEnableSsl(config.isEnableSsl());
+        hostConfig.setSslParam(config.getSslParam());
+        return hostConfig;
+    }
+
+    private static int share(int total, int index, int hosts) {
+        return total / hosts + (index < total % hosts ? 1 : 0);
+    }
+
+    private SessionPool createSessionPool(SessionPoolConfig config) throws SQLException {
+        SessionPool sessionPool = new SessionPool(config);
+        long start = System.currentTimeMillis();
+        boolean initialized = sessionPool.init();
+        long end = System.currentTimeMillis();
+        if (!initialized) {
+            sessionPool.close();
+            throw new SQLException(String.format("SessionPool init failed, make sure graph space [%s] " +
+                    "exists and user [%s] can access it.", config.getSpaceName(), config.getUsername()));
+        }
+        log.info("SessionPool.init() for space " + config.getSpaceName() + " use " + (end - start) + " ms");
+        return sessionPool;
+    }
+
+    /**
+     * NebulaPoolConfig has no equals(), so pools are keyed by the addresses and every setting
+     * that changes how the pool behaves.
+     */
+    static String poolKey(List<HostAddress> addresses, NebulaPoolConfig config) {
+        StringBuilder sb = new StringBuilder();
+        for (HostAddress address : addresses) {
+            sb.append(address.getHost()).append(':').append(address.getPort()).append(',');
+        }
+        return sb.append("min=").append(config.getMinConnSize())
+                .append(",max=").append(config.getMaxConnSize())
+                .append(",timeout=").append(config.getTimeout())
+                .append(",idleTime=").append(config.getIdleTime())
+                .append(",intervalIdle=").append(config.getIntervalIdle())
+                .append(",waitTime=").append(config.getWaitTime())
+                .append(",healthRate=").append(config.getMinClusterHealthRate())
+                .append(",ssl=").append(sslKey(config.getSslParam()))
+                .toString();
+    }
+
+    private static String sslKey(SSLParam sslParam) {
+        if (sslParam instanceof CASignedSSLParam) {
+            CASignedSSLParam param = (CASignedSSLParam) sslParam;
+            return "ca:" + param.getCaCrtFilePath() + ":" + param.getCrtFilePath() + ":" + param.getKeyFilePath();
+        } else if (sslParam instanceof SelfSignedSSLParam) {
+            SelfSignedSSLParam param = (SelfSignedSSLParam) sslParam;
+            return "self:" + param.getCrtFilePath() + ":" + param.getKeyFilePath() + ":" + digest(param.getPassword());
+        }
+        return "none";
+    }
+
+    /**
+     * sessions of a SessionPool are authenticated once, so the password is part of the key. Only
+     * its digest is kept since keys are logged.
+     */
+    static String sessionPoolKey(SessionPoolConfig config) {
+        StringBuilder sb = new StringBuilder("sessionPool:");
+        for (HostAddress address : config.getGraphAddressList()) {
+            sb.append(address.getHost()).append(':').append(address.getPort()).append(',');
+        }
+        return sb.append("space=").append(config.getSpaceName())
+                .append(",user=").append(config.getUsername())
+                .append(",password=").append(digest(config.getPassword()))
+                .append(",min=").append(config.getMinSessionSize())
+                .append(",max=").append(config.getMaxSessionSize())
+                .append(",timeout=").append(config.getTimeout())
+                .append(",cleanTime=").append(config.getCleanTime())
+                .append(",healthCheckTime=").append(config.getHealthCheckTime())
+                .append(",waitTime=").append(config.getWaitTime())
+                .toString();
+    }
+
+    private static String digest(String password) {
+        if (password == null) {
+            return "";
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                sb.append(String.format("%02x", hash[i]));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface PoolFactory<T extends SharedPool> {
+        T create() throws SQLException;
+    }
+}
@@ -0,0 +1,253 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.pool;
+
+import com.vesoft.nebula.client.graph.exception.AuthFailedException;
+import com.vesoft.nebula.client.graph.exception.ClientServerIncompatibleException;
+import com.vesoft.nebula.client.graph.exception.IOErrorException;
+import com.vesoft.nebula.client.graph.exception.NotValidConnectionException;
+import com.vesoft.nebula.client.graph.net.NebulaPool;
+import com.vesoft.nebula.client.graph.net.Session;
+import com.vesoft.nebula.client.graph.net.SyncConnection;
+import com.vesoft.nebula.jdbc.balancer.HostStats;
+import com.vesoft.nebula.jdbc.balancer.NebulaBalancer;
+import com.vesoft.nebula.jdbc.utils.NamedThreadFactory;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The pools of one cluster shared by every connection with the same pool config. Each graphd has
+ * its own {@link NebulaPool}, so that the {@link NebulaBalancer} rather than the pool decides
+ * which host a new session goes to.
+ */
+public class SharedNebulaPool extends SharedPool {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedNebulaPool.class);
+
+    private static final int MAX_WARM_UP_THREADS = 16;
+    private static final int LATENCY_WINDOW_SIZE = 256;
+
+    private final Map<HostStats, WarmableNebulaPool> hostPools;
+    private final List<HostStats> hosts;
+    private final NebulaBalancer balancer;
+    private final AtomicBoolean warmUpStarted = new AtomicBoolean(false);
+    private final LatencyWindow readLatency = new LatencyWindow(LATENCY_WINDOW_SIZE);
+    /**
+     * a cached pool starts no thread before the first hedge, so it is created with the pool and
+     * read without a lock.
+     */
+    private final ExecutorService hedgeExecutor =
+            Executors.newCachedThreadPool(new NamedThreadFactory("nebula-jdbc-hedge"));
+
+    SharedNebulaPool(NebulaPoolRegistry registry, String key, Map<HostStats, WarmableNebulaPool> hostPools,
+                     NebulaBalancer balancer) {
+        super(registry, key);
+        this.hostPools = hostPools;
+        this.hosts = Collections.unmodifiableList(new ArrayList<>(hostPools.keySet()));
+        this.balancer = balancer;
+    }
+
+    /**
+     * check out an authenticated session on the host chosen by the balancer, hosts failing to
+     * open it are left out and the next choice is tried. The session must be released by the
+     * caller.
+     */
+    public BalancedSession getSession(String user, String password) throws SQLException {
+        return getSession(user, password, null);
+    }
+
+    /**
+     * like {@link #getSession(String, String)}, but never on the excluded host.
+     */
+    public BalancedSession getSession(String user, String password, HostStats excluded) throws SQLException {
+        if (isClosed()) {
+            throw new SQLException("NebulaPool already closed.");
+        }
+        List<HostStats> candidates = new ArrayList<>(hosts.size());
+        for (HostStats host : hosts) {
+            if (host != excluded && host.getCircuitBreaker().isAvailable()) {
+                candidates.add(host);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // every breaker is open, trying anyway beats failing without a try
+            candidates.addAll(hosts);
+            candidates.remove(excluded);
+        }
+        Exception firstError = null;
+        while (!candidates.isEmpty()) {
+            HostStats host = balancer.select(candidates);
+            host.getCircuitBreaker().onSelected();
+            try {
+                Session session = hostPools.get(host).getSession(user, password, true);
+                host.getCircuitBreaker().recordSuccess();
+                return new BalancedSession(session, host);
+            } catch (AuthFailedException | ClientServerIncompatibleException e) {
+                // the same on every host
+                throw new SQLException(e);
+            } catch (IOErrorException | NotValidConnectionException | RuntimeException e) {
+                host.getCircuitBreaker().recordFailure();
+                log.warn("get session from {} failed: {}", host.getAddress(), e.getMessage());
+                firstError = firstError == null ? e : firstError;
+                candidates.remove(host);
+            }
+        }
+        throw firstError == null ? new SQLException("No other graphd to open a session on.")
+                : new SQLException(firstError);
+    }
+
+    /**
+     * open the given number of connections to every host in parallel and leave them idle in the
+     * pools. Connections are returned only after all of them are open, otherwise one socket would
+     * be checked out again and again. At most {@code MAX_WARM_UP_THREADS} workers of the registry
+     * executor open them.
+     *
+     * @return the number of connections opened successfully
+     */
+    public int warmUp(int connectionsPerHost) {
+        warmUpStarted.set(true);
+        int connections = 0;
+        for (WarmableNebulaPool nebulaPool : hostPools.values()) {
+            connections += Math.min(connectionsPerHost, nebulaPool.getMaxConnSize());
+        }
+        if (connections <= 0 || isClosed()) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        Queue<WarmableNebulaPool> pending = new ConcurrentLinkedQueue<>();
+        for (WarmableNebulaPool nebulaPool : hostPools.values()) {
+            for (int i = 0; i < Math.min(connectionsPerHost, nebulaPool.getMaxConnSize()); i++) {
+                pending.add(nebulaPool);
+            }
+        }
+        WarmUp warmUp = new WarmUp(pending);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < Math.min(connections, MAX_WARM_UP_THREADS); i++) {
+                workers.add(getRegistry().getExecutor().submit(warmUp::openConnections));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (RejectedExecutionException | ExecutionException e) {
+            log.warn("warm-up stopped: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int opened = warmUp.giveBack();
+        log.info("warm-up opened {} of {} connections in {} ms", opened, connections,
+                System.currentTimeMillis() - start);
+        return opened;
+    }
+
+    /**
+     * connections opened by the warm-up workers, kept until all are open. A worker still opening
+     * one after the warm-up gave up returns it right away.
+     */
+    private static class WarmUp {
+
+        private final Queue<WarmableNebulaPool> pending;
+        private final Map<SyncConnection, WarmableNebulaPool> opened = new IdentityHashMap<>();
+        private boolean finished = false;
+
+        WarmUp(Queue<WarmableNebulaPool> pending) {
+            this.pending = pending;
+        }
+
+        void openConnections() {
+            WarmableNebulaPool nebulaPool;
+            while ((nebulaPool = pending.poll()) != null) {
+                SyncConnection connection;
+                try {
+                    connection = nebulaPool.borrowConnection();
+                } catch (Exception e) {
+                    log.warn("open connection for warm-up failed: {}", e.getMessage());
+                    continue;
+                }
+                synchronized (this) {
+                    if (finished) {
+                        nebulaPool.giveBack(connection);
+                        return;
+                    }
+                    opened.put(connection, nebulaPool);
+                }
+            }
+        }
+
+        synchronized int giveBack() {
+            finished = true;
+            pending.clear();
+            for (Map.Entry<SyncConnection, WarmableNebulaPool> connection : opened.entrySet()) {
+                connection.getValue().giveBack(connection.getKey());
+            }
+            return opened.size();
+        }
+    }
+
+    /**
+     * warm the pools up in background, only the first call for a pool does anything so every
+     * connection of a freshly created pool may call it.
+     */
+    public CompletableFuture<Integer> warmUpAsync(int connectionsPerHost) {
+        if (!warmUpStarted.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(0);
+        }
+        return CompletableFuture.supplyAsync(() -> warmUp(connectionsPerHost), getRegistry().getExecutor());
+    }
+
+    /**
+     * record the latency of a read-only request.
+     */
+    public void recordReadLatency(long latencyMicros) {
+        readLatency.record(latencyMicros);
+    }
+
+    /**
+     * how long a read-only request may wait before it is hedged: the given percentile of recent
+     * read latencies, but not less than minDelayMillis. -1 while too few reads were seen.
+     */
+    public long getHedgeDelayMicros(double percentile, int minDelayMillis) {
+        long delay = readLatency.percentile(percentile);
+        return delay < 0 ? -1 : Math.max(delay, minDelayMillis * 1000L);
+    }
+
+    /**
+     * threads running the requests of hedged reads, shared by the connections of the pool.
+     */
+    public ExecutorService getHedgeExecutor() {
+        return hedgeExecutor;
+    }
+
+    /**
+     * the load of every host as seen by this pool.
+     */
+    public List<HostStats> getHosts() {
+        return hosts;
+    }
+
+    @Override
+    protected void closePool() {
+        hedgeExecutor.shutdown();
+        for (NebulaPool nebulaPool : hostPools.values()) {
+            nebulaPool.close();
+        }
+    }
+}
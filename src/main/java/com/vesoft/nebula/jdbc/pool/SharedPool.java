@@ -0,0 +1,76 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.pool;
+
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * A pool handed out by {@link NebulaPoolRegistry}. Reference count and close task are guarded by
+ * the registry lock.
+ */
+public abstract class SharedPool {
+
+    private final NebulaPoolRegistry registry;
+    private final String key;
+    private int refCount = 0;
+    private ScheduledFuture<?> closeTask;
+    private volatile boolean isClosed = false;
+
+    SharedPool(NebulaPoolRegistry registry, String key) {
+        this.registry = registry;
+        this.key = key;
+    }
+
+    /**
+     * give back the reference taken from the registry.
+     */
+    public void release() {
+        registry.release(this);
+    }
+
+    NebulaPoolRegistry getRegistry() {
+        return registry;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isClosed() {
+        return isClosed;
+    }
+
+    int getRefCount() {
+        return refCount;
+    }
+
+    void retain() {
+        refCount++;
+        if (closeTask != null) {
+            closeTask.cancel(false);
+            closeTask = null;
+        }
+    }
+
+    int unretain() {
+        return --refCount;
+    }
+
+    void setCloseTask(ScheduledFuture<?> closeTask) {
+        this.closeTask = closeTask;
+    }
+
+    void close() {
+        if (closeTask != null) {
+            closeTask.cancel(false);
+            closeTask = null;
+        }
+        isClosed = true;
+        closePool();
+    }
+
+    protected abstract void closePool();
+}
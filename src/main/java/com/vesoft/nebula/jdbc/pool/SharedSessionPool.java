@@ -0,0 +1,65 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.pool;
+
+import com.vesoft.nebula.client.graph.SessionPool;
+import com.vesoft.nebula.client.graph.data.ResultSet;
+import com.vesoft.nebula.client.graph.exception.AuthFailedException;
+import com.vesoft.nebula.client.graph.exception.BindSpaceFailedException;
+import com.vesoft.nebula.client.graph.exception.ClientServerIncompatibleException;
+import com.vesoft.nebula.client.graph.exception.IOErrorException;
+import java.sql.SQLException;
+
+/**
+ * A {@link SessionPool} shared by every connection of the same user to the same graph space. Its
+ * sessions are authenticated and switched to the space when they are created, so executing on it
+ * is only a poll of an idle session.
+ */
+public class SharedSessionPool extends SharedPool {
+
+    private final SessionPool sessionPool;
+    private final String spaceName;
+
+    SharedSessionPool(NebulaPoolRegistry registry, String key, SessionPool sessionPool, String spaceName) {
+        super(registry, key);
+        this.sessionPool = sessionPool;
+        this.spaceName = spaceName;
+    }
+
+    /**
+     * execute on an idle session of the pool, io errors are rethrown so the caller can tell a
+     * broken session from a failed statement.
+     */
+    public ResultSet execute(String nGql) throws IOErrorException, SQLException {
+        if (isClosed()) {
+            throw new SQLException("SessionPool already closed.");
+        }
+        try {
+            return sessionPool.execute(nGql);
+        } catch (AuthFailedException | ClientServerIncompatibleException | BindSpaceFailedException e) {
+            throw new SQLException(e);
+        } catch (IllegalArgumentException e) {
+            throw new SQLException(String.format("nGql \"%s\" is not allowed in session pool mode: %s",
+                    nGql, e.getMessage()), e);
+        } catch (RuntimeException e) {
+            // SessionPool reports an exhausted pool with a plain RuntimeException
+            throw new SQLException(e.getMessage(), e);
+        }
+    }
+
+    public SessionPool getSessionPool() {
+        return sessionPool;
+    }
+
+    public String getSpaceName() {
+        return spaceName;
+    }
+
+    @Override
+    protected void closePool() {
+        sessionPool.close();
+    }
+}
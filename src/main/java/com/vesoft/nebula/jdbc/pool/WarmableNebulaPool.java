@@ -0,0 +1,48 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.pool;
+
+import com.vesoft.nebula.client.graph.NebulaPoolConfig;
+import com.vesoft.nebula.client.graph.data.HostAddress;
+import com.vesoft.nebula.client.graph.exception.InvalidConfigException;
+import com.vesoft.nebula.client.graph.exception.NotValidConnectionException;
+import com.vesoft.nebula.client.graph.net.NebulaPool;
+import com.vesoft.nebula.client.graph.net.SyncConnection;
+import java.net.UnknownHostException;
+import java.util.List;
+
+/**
+ * NebulaPool only exposes sessions. Warm-up needs the raw connections so it can open them
+ * without authenticating, this subclass makes the checkout visible to the pool package.
+ */
+class WarmableNebulaPool extends NebulaPool {
+
+    private static final long serialVersionUID = 1L;
+
+    private int maxConnSize = Integer.MAX_VALUE;
+
+    @Override
+    public boolean init(List<HostAddress> addresses, NebulaPoolConfig config)
+            throws UnknownHostException, InvalidConfigException {
+        maxConnSize = config.getMaxConnSize();
+        return super.init(addresses, config);
+    }
+
+    /**
+     * the most connections the pool opens to its host.
+     */
+    int getMaxConnSize() {
+        return maxConnSize;
+    }
+
+    SyncConnection borrowConnection() throws NotValidConnectionException {
+        return getConnection();
+    }
+
+    void giveBack(SyncConnection connection) {
+        returnConnection(connection);
+    }
+}
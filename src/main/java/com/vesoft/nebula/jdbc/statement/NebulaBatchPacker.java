@@ -0,0 +1,127 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.statement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Packs the statements of a batch into ;-joined multi-statement requests, each holding at most
+ * batchMaxStatements statements and batchMaxBytes bytes of UTF-8, a longer statement goes alone.
+ * The rows of a prepared INSERT are packed under a single INSERT per request instead.
+ */
+final class NebulaBatchPacker {
+
+    private static final Pattern LEADING_USE = Pattern.compile("^\\s*use\\s", Pattern.CASE_INSENSITIVE);
+
+    private NebulaBatchPacker() {
+    }
+
+    static final class Pack {
+        final String nGql;
+        final int from;
+        final int count;
+
+        Pack(String nGql, int from, int count) {
+            this.nGql = nGql;
+            this.from = from;
+            this.count = count;
+        }
+    }
+
+    /**
+     * a statement starting with USE opens a new request, so the connection sees the space switch.
+     */
+    static List<Pack> pack(List<String> statements, int maxStatements, int maxBytes) {
+        List<Pack> packs = new ArrayList<>();
+        StringBuilder nGql = new StringBuilder();
+        int from = 0;
+        int bytes = 0;
+        for (int i = 0; i < statements.size(); i++) {
+            String statement = trimTerminator(statements.get(i));
+            int size = utf8Length(statement);
+            int count = i - from;
+            if (count > 0 && (count >= maxStatements || bytes + 1 + size > maxBytes
+                    || LEADING_USE.matcher(statement).lookingAt())) {
+                packs.add(new Pack(nGql.toString(), from, count));
+                nGql.setLength(0);
+                from = i;
+                bytes = 0;
+            }
+            if (i > from) {
+                nGql.append(';');
+                bytes++;
+            }
+            nGql.append(statement);
+            bytes += size;
+        }
+        if (statements.size() > from) {
+            packs.add(new Pack(nGql.toString(), from, statements.size() - from));
+        }
+        return packs;
+    }
+
+    /**
+     * put rows under one INSERT head per request, separated by commas, as many as fit in
+     * maxBytes. A request holds at least one row.
+     */
+    static List<Pack> packRows(String head, List<String> rows, int maxBytes) {
+        List<Pack> packs = new ArrayList<>();
+        int headBytes = utf8Length(head) + 1;
+        StringBuilder nGql = new StringBuilder();
+        int from = 0;
+        int bytes = headBytes;
+        for (int i = 0; i < rows.size(); i++) {
+            String row = rows.get(i);
+            int size = utf8Length(row);
+            if (i > from && bytes + 2 + size > maxBytes) {
+                packs.add(new Pack(nGql.toString(), from, i - from));
+                from = i;
+                bytes = headBytes;
+            }
+            if (i == from) {
+                nGql.setLength(0);
+                nGql.append(head).append(' ');
+            } else {
+                nGql.append(", ");
+                bytes += 2;
+            }
+            nGql.append(row);
+            bytes += size;
+        }
+        if (rows.size() > from) {
+            packs.add(new Pack(nGql.toString(), from, rows.size() - from));
+        }
+        return packs;
+    }
+
+    private static String trimTerminator(String statement) {
+        int end = statement.length();
+        while (end > 0 && (statement.charAt(end - 1) == ';' || Character.isWhitespace(statement.charAt(end - 1)))) {
+            end--;
+        }
+        return statement.substring(0, end);
+    }
+
+    private static int utf8Length(String text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
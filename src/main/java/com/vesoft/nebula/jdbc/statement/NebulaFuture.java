@@ -0,0 +1,75 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.statement;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The future of a statement run on the async executor. Cancelling it before the task starts
+ * skips the statement, cancelling it while running kills the statement in graphd, and with
+ * mayInterruptIfRunning also interrupts the thread waiting for graphd.
+ */
+class NebulaFuture<T> extends CompletableFuture<T> {
+
+    interface Task<T> {
+        T call() throws SQLException;
+    }
+
+    private final Runnable onCancel;
+    private Thread runner;
+    private boolean interrupted;
+
+    NebulaFuture() {
+        this(null);
+    }
+
+    /**
+     * @param onCancel run when the future is cancelled, it must not block
+     */
+    NebulaFuture(Runnable onCancel) {
+        this.onCancel = onCancel;
+    }
+
+    void run(Task<T> task) {
+        synchronized (this) {
+            if (isDone()) {
+                return;
+            }
+            runner = Thread.currentThread();
+        }
+        try {
+            complete(task.call());
+        } catch (Throwable e) {
+            completeExceptionally(e);
+        } finally {
+            synchronized (this) {
+                runner = null;
+                if (interrupted) {
+                    // the interrupt was for this task only, not for the executor thread
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled && onCancel != null) {
+            onCancel.run();
+        }
+        if (cancelled && mayInterruptIfRunning) {
+            synchronized (this) {
+                if (runner != null) {
+                    interrupted = true;
+                    runner.interrupt();
+                }
+            }
+        }
+        return cancelled;
+    }
+}
@@ -0,0 +1,213 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.statement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pushes maxRows of a statement down to graphd as a LIMIT: a numeric trailing LIMIT is tightened,
+ * otherwise MATCH gets LIMIT appended and GO, FETCH and LOOKUP get | LIMIT appended. Any other
+ * shape is left as it is, its result is truncated in the client. A statement whose result is
+ * ordered last can also be split into pages of SKIP and LIMIT.
+ */
+final class NebulaLimitPushdown {
+
+    private static final Pattern NUMERIC_LIMIT = Pattern.compile("\\s+(?:(\\d+)\\s*,\\s*)?(\\d+)\\s*");
+    private static final Pattern SINGLE_TOKEN = Pattern.compile("\\s*[^\\s|]+(?:\\s*,\\s*[^\\s|]+)?\\s*");
+
+    private NebulaLimitPushdown() {
+    }
+
+    /**
+     * @return nGql with its result limited to maxRows, or nGql itself when its shape is unknown.
+     */
+    static String pushDown(String nGql, int maxRows) {
+        Scan scan = new Scan(nGql);
+        if (scan.unsupported) {
+            return nGql;
+        }
+        String head = nGql.substring(0, scan.statementStart);
+        String statement = nGql.substring(scan.statementStart, scan.statementEnd);
+        String verb = firstWord(statement);
+        boolean match = verb.equals("match");
+        if (!match && !verb.equals("go") && !verb.equals("fetch") && !verb.equals("lookup")) {
+            return nGql;
+        }
+        if (scan.lastLimit >= 0) {
+            String rest = nGql.substring(scan.lastLimit + "limit".length(), scan.statementEnd);
+            Matcher numeric = NUMERIC_LIMIT.matcher(rest);
+            if (numeric.matches()) {
+                long limit = Long.parseLong(numeric.group(2));
+                if (limit <= maxRows) {
+                    return nGql;
+                }
+                String offset = numeric.group(1) == null ? "" : numeric.group(1) + ", ";
+                return nGql.substring(0, scan.lastLimit) + "LIMIT " + offset + maxRows;
+            }
+            if (SINGLE_TOKEN.matcher(rest).matches()) {
+                // LIMIT $n or an expression, it can not be compared with maxRows
+                return nGql;
+            }
+        }
+        return head + statement + (match ? " LIMIT " : " | LIMIT ") + maxRows;
+    }
+
+    /**
+     * @return nGql limited to the size rows from offset on, or null when its rows have no order,
+     * so pages of it would not be stable, or it limits its rows itself.
+     */
+    static String page(String nGql, long offset, int size) {
+        Scan scan = new Scan(nGql);
+        if (scan.unsupported) {
+            return null;
+        }
+        String statement = nGql.substring(0, scan.statementEnd);
+        String verb = firstWord(nGql.substring(scan.statementStart, scan.statementEnd));
+        if (verb.equals("match")) {
+            // RETURN ... ORDER BY ..., without SKIP or LIMIT after the RETURN
+            if (scan.lastReturn < 0 || scan.lastOrder < scan.lastReturn
+                    || scan.lastLimit > scan.lastReturn || scan.lastSkip > scan.lastReturn) {
+                return null;
+            }
+            return statement + " SKIP " + offset + " LIMIT " + size;
+        }
+        if (verb.equals("go") || verb.equals("fetch") || verb.equals("lookup")) {
+            // ... | ORDER BY ..., without LIMIT after it
+            if (scan.lastPipe < 0 || scan.lastOrder < scan.lastPipe || scan.lastLimit > scan.lastPipe) {
+                return null;
+            }
+            return statement + " | LIMIT " + offset + ", " + size;
+        }
+        return null;
+    }
+
+    private static String firstWord(String statement) {
+        int end = 0;
+        while (end < statement.length() && Character.isLetter(statement.charAt(end))) {
+            end++;
+        }
+        return statement.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * one pass over the top level of nGql, outside of strings, quoted names and comments.
+     */
+    private static final class Scan {
+        int statementStart = 0;
+        int statementEnd;
+        int lastLimit = -1;
+        int lastSkip = -1;
+        int lastOrder = -1;
+        int lastReturn = -1;
+        int lastPipe = -1;
+        boolean unsupported = false;
+
+        Scan(String nGql) {
+            int length = nGql.length();
+            int end = length;
+            List<Integer> semicolons = new ArrayList<>();
+            int i = 0;
+            while (i < length) {
+                char c = nGql.charAt(i);
+                if (c == '"' || c == '\'' || c == '`') {
+                    i = skipQuoted(nGql, i, c);
+                } else if (c == '#' || (c == '/' && i + 1 < length && nGql.charAt(i + 1) == '/')) {
+                    int newLine = nGql.indexOf('\n', i);
+                    if (newLine < 0) {
+                        // a trailing comment would swallow the LIMIT, so it is cut off
+                        end = i;
+                        i = length;
+                    } else {
+                        i = newLine + 1;
+                    }
+                } else if (c == '/' && i + 1 < length && nGql.charAt(i + 1) == '*') {
+                    int close = nGql.indexOf("*/", i + 2);
+                    i = close < 0 ? length : close + 2;
+                } else if (c == ';') {
+                    semicolons.add(i);
+                    i++;
+                } else if (c == '|' && i + 1 < length && nGql.charAt(i + 1) == '|') {
+                    // || is the logical or, not a pipe
+                    i += 2;
+                } else if (c == '|') {
+                    lastPipe = i;
+                    i++;
+                } else if (Character.isLetter(c) && (i == 0 || !isWordPart(nGql.charAt(i - 1)))) {
+                    int wordEnd = i;
+                    while (wordEnd < length && isWordPart(nGql.charAt(wordEnd))) {
+                        wordEnd++;
+                    }
+                    String word = nGql.substring(i, wordEnd);
+                    if (word.equalsIgnoreCase("limit")) {
+                        lastLimit = i;
+                    } else if (word.equalsIgnoreCase("skip")) {
+                        lastSkip = i;
+                    } else if (word.equalsIgnoreCase("order")) {
+                        lastOrder = i;
+                    } else if (word.equalsIgnoreCase("return")) {
+                        lastReturn = i;
+                    } else if (word.equalsIgnoreCase("union") || word.equalsIgnoreCase("intersect")
+                            || word.equalsIgnoreCase("minus")) {
+                        unsupported = true;
+                    }
+                    i = wordEnd;
+                } else {
+                    i++;
+                }
+            }
+            while (end > 0 && (Character.isWhitespace(nGql.charAt(end - 1)) || nGql.charAt(end - 1) == ';')) {
+                end--;
+            }
+            statementEnd = end;
+            for (int semicolon : semicolons) {
+                if (semicolon < end) {
+                    statementStart = semicolon + 1;
+                }
+            }
+            // only USE may come before the statement, anything else would have its own result
+            unsupported |= statementStart > 0 && !onlyUse(nGql.substring(0, statementStart - 1));
+            while (statementStart < end && Character.isWhitespace(nGql.charAt(statementStart))) {
+                statementStart++;
+            }
+            if (lastLimit < statementStart || lastLimit >= end) {
+                lastLimit = -1;
+            }
+        }
+
+        private static int skipQuoted(String nGql, int start, char quote) {
+            int i = start + 1;
+            while (i < nGql.length()) {
+                char c = nGql.charAt(i);
+                if (c == '\\' && quote != '`') {
+                    i += 2;
+                } else if (c == quote) {
+                    return i + 1;
+                } else {
+                    i++;
+                }
+            }
+            return i;
+        }
+
+        private static boolean onlyUse(String clauses) {
+            for (String clause : clauses.split(";")) {
+                String trimmed = clause.trim();
+                if (!trimmed.isEmpty() && !firstWord(trimmed).equals("use")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isWordPart(char c) {
+            return c == '_' || Character.isLetterOrDigit(c);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.statement;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes parameter values as nGql literals straight into the render buffer of a prepared
+ * statement: strings escaped, temporals as date(), time() and datetime() calls, collections and
+ * maps as list, set and map literals.
+ */
+final class NebulaLiteralEncoder {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("uuuu-MM-dd");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSSSSS");
+    private static final DateTimeFormatter DATETIME = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSSSS");
+
+    private NebulaLiteralEncoder() {
+    }
+
+    /**
+     * append value as a literal. byte[] is taken as UTF-8 text, graphd has no binary type.
+     */
+    static void append(StringBuilder out, Object value) throws SQLException {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String) {
+            appendString(out, (String) value);
+        } else if (value instanceof Character) {
+            appendString(out, value.toString());
+        } else if (value instanceof BigDecimal) {
+            out.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Double || value instanceof Float) {
+            checkFinite(((Number) value).doubleValue());
+            out.append(value);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else if (value instanceof java.sql.Date) {
+            appendDate(out, ((java.sql.Date) value).toLocalDate());
+        } else if (value instanceof java.sql.Time) {
+            appendTime(out, ((java.sql.Time) value).toLocalTime());
+        } else if (value instanceof java.sql.Timestamp) {
+            appendDateTime(out, ((java.sql.Timestamp) value).toLocalDateTime());
+        } else if (value instanceof java.util.Date) {
+            appendDateTime(out, LocalDateTime.ofInstant(((java.util.Date) value).toInstant(), ZoneId.systemDefault()));
+        } else if (value instanceof LocalDate) {
+            appendDate(out, (LocalDate) value);
+        } else if (value instanceof LocalTime) {
+            appendTime(out, (LocalTime) value);
+        } else if (value instanceof LocalDateTime) {
+            appendDateTime(out, (LocalDateTime) value);
+        } else if (value instanceof byte[]) {
+            appendString(out, new String((byte[]) value, StandardCharsets.UTF_8));
+        } else if (value instanceof Collection) {
+            boolean set = value instanceof Set;
+            out.append(set ? '{' : '[');
+            String separator = "";
+            for (Object element : (Collection<?>) value) {
+                out.append(separator);
+                append(out, element);
+                separator = ", ";
+            }
+            out.append(set ? '}' : ']');
+        } else if (value instanceof Map) {
+            out.append('{');
+            String separator = "";
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                out.append(separator);
+                appendKey(out, String.valueOf(entry.getKey()));
+                out.append(": ");
+                append(out, entry.getValue());
+                separator = ", ";
+            }
+            out.append('}');
+        } else {
+            throw new SQLException(String.format("Parameter type %s can not be written as nGql literal.",
+                    value.getClass().getName()));
+        }
+    }
+
+    /**
+     * nGql has no literal for NaN or an infinity, graphd would take it for a name.
+     */
+    static void checkFinite(double value) throws SQLException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new SQLException(String.format("Parameter %s can not be written as nGql literal.", value));
+        }
+    }
+
+    static void appendString(StringBuilder out, String value) {
+        out.append('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String escape = escape(value.charAt(i));
+            if (escape != null) {
+                out.append(value, start, i).append(escape);
+                start = i + 1;
+            }
+        }
+        out.append(value, start, value.length()).append('"');
+    }
+
+    private static String escape(char c) {
+        switch (c) {
+            case '"':
+                return "\\\"";
+            case '\\':
+                return "\\\\";
+            case '\n':
+                return "\\n";
+            case '\r':
+                return "\\r";
+            case '\t':
+                return "\\t";
+            case '\b':
+                return "\\b";
+            case '\f':
+                return "\\f";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * map keys are names, anything but a plain identifier is quoted with backticks.
+     */
+    private static void appendKey(StringBuilder out, String key) {
+        boolean plain = !key.isEmpty() && !Character.isDigit(key.charAt(0));
+        for (int i = 0; i < key.length() && plain; i++) {
+            char c = key.charAt(i);
+            plain = c == '_' || (c < 128 && Character.isLetterOrDigit(c));
+        }
+        if (plain) {
+            out.append(key);
+        } else {
+            out.append('`').append(key.replace("`", "")).append('`');
+        }
+    }
+
+    private static void appendDate(StringBuilder out, LocalDate date) {
+        out.append("date(\"");
+        DATE.formatTo(date, out);
+        out.append("\")");
+    }
+
+    private static void appendTime(StringBuilder out, LocalTime time) {
+        out.append("time(\"");
+        TIME.formatTo(time, out);
+        out.append("\")");
+    }
+
+    private static void appendDateTime(StringBuilder out, LocalDateTime dateTime) {
+        out.append("datetime(\"");
+        DATETIME.formatTo(dateTime, out);
+        out.append("\")");
+    }
+}
@@ -0,0 +1,188 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.statement;
+
+import com.vesoft.nebula.client.graph.data.ResultSet;
+import com.vesoft.nebula.jdbc.NebulaResultSet;
+import com.vesoft.nebula.jdbc.NebulaRunningQuery;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A forward-only result read in pages of fetchSize rows, each one a SKIP and LIMIT round trip of
+ * the ordered nGql. The next page is fetched on the async executor while the current one is read,
+ * so at most two pages are held in memory. The order must be total, rows that tie on it may move
+ * between pages. Closing it, or its statement, cancels the prefetch and kills it in graphd if it
+ * already runs there.
+ */
+class NebulaPagedResultSet extends NebulaResultSet {
+
+    private final NebulaStatementImpl statement;
+    private final String nGql;
+    private final Map<String, Object> parameters;
+    private final NebulaRunningQuery query;
+    private final int fetchSize;
+    private final int maxRows;
+    private long pageOffset = 0;
+    private int pageRows;
+    private int pageSize;
+    private int nextPageSize;
+    private volatile CompletableFuture<ResultSet> nextPage;
+
+    NebulaPagedResultSet(NebulaStatementImpl statement, String nGql, Map<String, Object> parameters,
+                         NebulaRunningQuery query, int fetchSize, int maxRows, ResultSet firstPage)
+            throws SQLException {
+        super(firstPage, statement);
+        this.statement = statement;
+        this.nGql = nGql;
+        this.parameters = parameters;
+        this.query = query;
+        this.fetchSize = fetchSize;
+        this.maxRows = maxRows;
+        this.pageRows = rows(firstPage);
+        this.pageSize = maxRows > 0 ? Math.min(fetchSize, maxRows) : fetchSize;
+        statement.opened(this);
+        prefetch();
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        if (super.next()) {
+            return true;
+        }
+        CompletableFuture<ResultSet> pending = nextPage;
+        if (pending == null) {
+            return false;
+        }
+        ResultSet page = await(pending);
+        nextPage = null;
+        pageOffset += pageRows;
+        pageRows = rows(page);
+        pageSize = nextPageSize;
+        nextPage(page);
+        prefetch();
+        return super.next();
+    }
+
+    /**
+     * fetch the page after the current one, unless the current one is short or maxRows is reached.
+     */
+    private void prefetch() throws SQLException {
+        long from = pageOffset + pageRows;
+        int size = maxRows > 0 ? (int) Math.min(fetchSize, maxRows - from) : fetchSize;
+        if (pageRows < pageSize || size <= 0) {
+            return;
+        }
+        String page = NebulaLimitPushdown.page(nGql, from, size);
+        nextPageSize = size;
+        nextPage = statement.submit(query, () -> statement.runNative(page, parameters, true, query));
+    }
+
+    private static ResultSet await(CompletableFuture<ResultSet> page) throws SQLException {
+        try {
+            return page.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            page.cancel(true);
+            throw new SQLException("Interrupted while waiting for the next page.", e);
+        } catch (CancellationException e) {
+            throw new SQLException("ResultSet was closed while waiting for the next page.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("Fetching the next page failed.", e.getCause());
+        }
+    }
+
+    private static int rows(ResultSet page) {
+        return page.isEmpty() ? 0 : page.rowsSize();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        CompletableFuture<ResultSet> pending = nextPage;
+        nextPage = null;
+        if (pending != null) {
+            // the future kills the query in graphd when it is cancelled while running
+            pending.cancel(true);
+        }
+        statement.closed(this);
+        super.close();
+    }
+
+    @Override
+    public int getType() throws SQLException {
+        return TYPE_FORWARD_ONLY;
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return fetchSize;
+    }
+
+    @Override
+    public int getRow() throws SQLException {
+        return (int) (pageOffset + super.getRow());
+    }
+
+    @Override
+    public boolean isAfterLast() throws SQLException {
+        return nextPage == null && super.isAfterLast();
+    }
+
+    @Override
+    public boolean isLast() throws SQLException {
+        return nextPage == null && super.isLast();
+    }
+
+    @Override
+    public boolean isFirst() throws SQLException {
+        return pageOffset == 0 && super.isFirst();
+    }
+
+    @Override
+    public boolean previous() throws SQLException {
+        throw forwardOnly();
+    }
+
+    @Override
+    public void beforeFirst() throws SQLException {
+        throw forwardOnly();
+    }
+
+    @Override
+    public void afterLast() throws SQLException {
+        throw forwardOnly();
+    }
+
+    @Override
+    public boolean first() throws SQLException {
+        throw forwardOnly();
+    }
+
+    @Override
+    public boolean last() throws SQLException {
+        throw forwardOnly();
+    }
+
+    @Override
+    public boolean absolute(int row) throws SQLException {
+        throw forwardOnly();
+    }
+
+    @Override
+    public boolean relative(int rows) throws SQLException {
+        throw forwardOnly();
+    }
+
+    private static SQLException forwardOnly() {
+        return new SQLException("ResultSet read in pages of fetchSize rows is TYPE_FORWARD_ONLY.");
+    }
+}
@@ -0,0 +1,237 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.statement;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The parameters of a prepared statement, one slot per ? numbered from 1. Primitive values are
+ * kept in typed lanes, so setting them does not box, only references go to the object lane.
+ */
+class NebulaParameterSlots {
+
+    static final byte UNSET = 0;
+    static final byte INT = 1;
+    static final byte LONG = 2;
+    static final byte DOUBLE = 3;
+    static final byte FLOAT = 4;
+    static final byte BOOLEAN = 5;
+    static final byte OBJECT = 6;
+
+    private final byte[] kinds;
+    private final long[] longs;
+    private final double[] doubles;
+    private final BitSet booleans;
+    private final Object[] objects;
+    private final Map<Object, Object> view = new View();
+
+    NebulaParameterSlots(int size) {
+        this.kinds = new byte[size];
+        this.longs = new long[size];
+        this.doubles = new double[size];
+        this.booleans = new BitSet(size);
+        this.objects = new Object[size];
+    }
+
+    int size() {
+        return kinds.length;
+    }
+
+    void setInt(int index, int value) {
+        kinds[index - 1] = INT;
+        longs[index - 1] = value;
+        objects[index - 1] = null;
+    }
+
+    void setLong(int index, long value) {
+        kinds[index - 1] = LONG;
+        longs[index - 1] = value;
+        objects[index - 1] = null;
+    }
+
+    void setDouble(int index, double value) {
+        kinds[index - 1] = DOUBLE;
+        doubles[index - 1] = value;
+        objects[index - 1] = null;
+    }
+
+    void setFloat(int index, float value) {
+        kinds[index - 1] = FLOAT;
+        doubles[index - 1] = value;
+        objects[index - 1] = null;
+    }
+
+    void setBoolean(int index, boolean value) {
+        kinds[index - 1] = BOOLEAN;
+        booleans.set(index - 1, value);
+        objects[index - 1] = null;
+    }
+
+    void setObject(int index, Object value) {
+        kinds[index - 1] = OBJECT;
+        objects[index - 1] = value;
+    }
+
+    void unset(int index) {
+        kinds[index - 1] = UNSET;
+        objects[index - 1] = null;
+    }
+
+    /**
+     * the kind of the slot, UNSET for an index out of the slots.
+     */
+    byte kind(int index) {
+        return index < 1 || index > kinds.length ? UNSET : kinds[index - 1];
+    }
+
+    long getLong(int index) {
+        return longs[index - 1];
+    }
+
+    double getDouble(int index) {
+        return doubles[index - 1];
+    }
+
+    boolean getBoolean(int index) {
+        return booleans.get(index - 1);
+    }
+
+    Object getObject(int index) {
+        return objects[index - 1];
+    }
+
+    /**
+     * the value of the slot boxed as it was set, null when it is not set.
+     */
+    Object get(int index) {
+        switch (kind(index)) {
+            case INT:
+                return (int) longs[index - 1];
+            case LONG:
+                return longs[index - 1];
+            case DOUBLE:
+                return doubles[index - 1];
+            case FLOAT:
+                return (float) doubles[index - 1];
+            case BOOLEAN:
+                return booleans.get(index - 1);
+            case OBJECT:
+                return objects[index - 1];
+            default:
+                return null;
+        }
+    }
+
+    void clear() {
+        Arrays.fill(kinds, UNSET);
+        Arrays.fill(objects, null);
+    }
+
+    /**
+     * map from the Integer index to the boxed value of the set slots, backed by the slots. A value
+     * put into it goes to the object lane.
+     */
+    Map<Object, Object> asMap() {
+        return view;
+    }
+
+    private class View extends AbstractMap<Object, Object> {
+
+        @Override
+        public Object get(Object key) {
+            return key instanceof Integer ? NebulaParameterSlots.this.get((Integer) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Integer && kind((Integer) key) != UNSET;
+        }
+
+        @Override
+        public Object put(Object key, Object value) {
+            int index = slot(key);
+            Object previous = NebulaParameterSlots.this.get(index);
+            setObject(index, value);
+            return previous;
+        }
+
+        @Override
+        public Object remove(Object key) {
+            if (!containsKey(key)) {
+                return null;
+            }
+            int index = (Integer) key;
+            Object previous = NebulaParameterSlots.this.get(index);
+            unset(index);
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            NebulaParameterSlots.this.clear();
+        }
+
+        private int slot(Object key) {
+            if (!(key instanceof Integer) || (Integer) key < 1 || (Integer) key > kinds.length) {
+                throw new IllegalArgumentException("Parameter index " + key + " is out of the slots.");
+            }
+            return (Integer) key;
+        }
+
+        @Override
+        public Set<Entry<Object, Object>> entrySet() {
+            return new AbstractSet<Entry<Object, Object>>() {
+                @Override
+                public Iterator<Entry<Object, Object>> iterator() {
+                    return new Iterator<Entry<Object, Object>>() {
+                        private int next = advance(1);
+
+                        private int advance(int from) {
+                            int index = from;
+                            while (index <= kinds.length && kinds[index - 1] == UNSET) {
+                                index++;
+                            }
+                            return index;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next <= kinds.length;
+                        }
+
+                        @Override
+                        public Entry<Object, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int index = next;
+                            next = advance(index + 1);
+                            return new SimpleImmutableEntry<>(index, NebulaParameterSlots.this.get(index));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (byte kind : kinds) {
+                        if (kind != UNSET) {
+                            size++;
+                        }
+                    }
+                    return size;
+                }
+            };
+        }
+    }
+}
@@ -5,11 +5,23 @@
 
 package com.vesoft.nebula.jdbc.statement;
 
+import com.vesoft.nebula.jdbc.NebulaResultSet;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
 
 public interface NebulaPreparedStatement extends PreparedStatement, NebulaStatement {
     void checkParamsNumber(int parameterIndex) throws SQLException;
 
     void insertParameter(int parameterIndex, Object obj) throws SQLException;
+
+    /**
+     * execute with the current parameters without blocking the caller.
+     */
+    CompletableFuture<NebulaResultSet> executeAsync() throws SQLException;
+
+    /**
+     * executeQuery with the current parameters without blocking the caller.
+     */
+    CompletableFuture<NebulaResultSet> executeQueryAsync() throws SQLException;
 }
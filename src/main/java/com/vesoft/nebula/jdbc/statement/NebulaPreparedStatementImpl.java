@@ -7,21 +7,28 @@ package com.vesoft.nebula.jdbc.statement;
 
 import com.vesoft.nebula.jdbc.NebulaConnection;
 import com.vesoft.nebula.jdbc.NebulaParameterMetaData;
+import com.vesoft.nebula.jdbc.NebulaResultSet;
 
 import com.vesoft.nebula.jdbc.utils.ExceptionBuilder;
+import com.vesoft.nebula.jdbc.utils.NebulaPropertyKey;
 import java.io.InputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.*;
-import java.text.SimpleDateFormat;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.List;
 import java.util.HashMap;
-import java.util.Objects;
 import java.util.Map;
-import java.util.regex.Matcher;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 
 public class NebulaPreparedStatementImpl extends NebulaStatementImpl implements NebulaPreparedStatement {
@@ -29,20 +36,30 @@ public class NebulaPreparedStatementImpl extends NebulaStatementImpl implements
     protected static final Pattern NAMED_PARAMETER_REGEX = Pattern.compile("\\?(?=[^\"]*(?:\"[^\"]*\"[^\"]*)*$)");
     protected String                  rawNGQL;
     protected String                  nGql;
-    protected Map<Object, Object> parameters;
+    protected final Map<Object, Object> parameters;
+    private final NebulaParameterSlots slots;
     protected int                     parametersNumber;
 
+    protected final NebulaPreparedTemplate template;
+    private StringBuilder renderBuffer;
+
     public NebulaPreparedStatementImpl(NebulaConnection connection, String rawNGQL) {
+        this(connection, new NebulaPreparedTemplate(rawNGQL));
+    }
+
+    public NebulaPreparedStatementImpl(NebulaConnection connection, NebulaPreparedTemplate template) {
         super(connection);
-       this.rawNGQL = rawNGQL;
-       this.parametersNumber = namedParameterCount(rawNGQL);
-       this.parameters = new HashMap<>();
+       this.template = template;
+       this.rawNGQL = template.getRawNGQL();
+       this.parametersNumber = template.getParametersNumber();
+       this.slots = new NebulaParameterSlots(parametersNumber);
+       this.parameters = slots.asMap();
     }
 
     @Override
     public ResultSet executeQuery() throws SQLException {
-        this.checkReadOnly(this.rawNGQL);
-        this.execute();
+        this.template.checkReadOnly(this);
+        this.execute(true);
         return currentResultSet;
     }
 
@@ -53,72 +70,263 @@ public class NebulaPreparedStatementImpl extends NebulaStatementImpl implements
      */
     @Override
     public int executeUpdate() throws SQLException {
-        this.checkUpdate(this.rawNGQL);
-        this.execute();
+        this.template.checkUpdate(this);
+        this.execute(false);
         return 0;
     }
 
     @Override
     public boolean execute() throws SQLException {
+        return this.execute(template.getKind() == NebulaStatementKind.READ);
+    }
+
+    /**
+     * with parameterBinding the nGql keeps $p1..$pn in place of the ?, and the values are sent
+     * apart from it, otherwise they are rendered into the nGql as literals.
+     */
+    protected boolean execute(boolean readOnly) throws SQLException {
+        if (isParameterBinding()) {
+            this.nGql = template.getParameterizedNGQL();
+            return this.execute(this.nGql, bindParameters(), readOnly);
+        }
         this.nGql = replacePlaceHolderWithParam(this.rawNGQL);
-        return this.execute(this.nGql);
+        return this.execute(this.nGql, readOnly);
     }
 
-    protected String replacePlaceHolderWithParam(String rawNGQL) throws SQLException {
-        Integer index = 1;
-        String digested = rawNGQL;
+    private boolean isParameterBinding() {
+        return parametersNumber > 0 && nebulaConnection != null
+                && nebulaConnection.getNebulaConfig().isParameterBinding();
+    }
 
-        Matcher matcher = NAMED_PARAMETER_REGEX.matcher(digested);
+    /**
+     * the parameters are taken when the call is made, setting others afterwards does not change
+     * the statement in flight.
+     */
+    @Override
+    public CompletableFuture<NebulaResultSet> executeAsync() throws SQLException {
+        return submit(template.getKind() == NebulaStatementKind.READ);
+    }
 
-        while (matcher.find()) {
-            if(!parameters.containsKey(index)){
-                throw new SQLException(String.format("Can not get param in index [%d], please check your nGql.", index));
+    @Override
+    public CompletableFuture<NebulaResultSet> executeQueryAsync() throws SQLException {
+        this.template.checkReadOnly(this);
+        return submit(true);
+    }
+
+    private CompletableFuture<NebulaResultSet> submit(boolean readOnly) throws SQLException {
+        if (isParameterBinding()) {
+            return submit(template.getParameterizedNGQL(), bindParameters(), readOnly);
+        }
+        return submit(replacePlaceHolderWithParam(this.rawNGQL), null, readOnly);
+    }
+
+    protected Map<String, Object> bindParameters() throws SQLException {
+        Map<String, Object> bound = new HashMap<>((int) (parametersNumber / 0.75f) + 1);
+        for (int index = 1; index <= parametersNumber; index++) {
+            checkParameterSet(index);
+            bound.put(NebulaPreparedTemplate.parameterKey(index), toParameterValue(slots.get(index)));
+        }
+        return bound;
+    }
+
+    /**
+     * the value sent for a parameter. Dates and times become nebula values holding the local
+     * date and time of the JVM, the same fields {@link NebulaLiteralEncoder} writes as literals.
+     */
+    static Object toParameterValue(Object param) throws SQLException {
+        if (param == null || param instanceof Boolean || param instanceof Integer || param instanceof Long
+                || param instanceof Short || param instanceof Byte || param instanceof Double
+                || param instanceof Float || param instanceof String) {
+            return param;
+        }
+        if (param instanceof Character) {
+            return param.toString();
+        }
+        if (param instanceof byte[]) {
+            return new String((byte[]) param, StandardCharsets.UTF_8);
+        }
+        if (param instanceof Collection) {
+            List<Object> list = new ArrayList<>(((Collection<?>) param).size());
+            for (Object element : (Collection<?>) param) {
+                list.add(toParameterValue(element));
             }
-            Object param = parameters.get(index);
-
-            if(param != null) {
-                String paramTypeName = param.getClass().getTypeName();
-                switch (paramTypeName) {
-                    case ("java.lang.String"):
-                        param = String.format("\"%s\"", param);
-                        break;
-                    case ("java.sql.Date"):
-                        param = String.format("date(\"%s\")", param);
-                        break;
-                    case ("java.sql.Time"):
-                        param = String.format("time(\"%s\")", param);
-                        break;
-                    case ("java.util.Date"):
-                        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.sss");
-                        String datetimeString = formatter.format(param);
-                        param = String.format("datetime(\"%s\")", datetimeString);
-                        break;
-                    default:
-                        break;
-                }
+            return list;
+        }
+        if (param instanceof Map) {
+            Map<String, Object> map = new HashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) param).entrySet()) {
+                map.put(String.valueOf(entry.getKey()), toParameterValue(entry.getValue()));
             }
+            return map;
+        }
+        if (param instanceof Date) {
+            return toNebulaDate(((Date) param).toLocalDate());
+        }
+        if (param instanceof Time) {
+            return toNebulaTime(((Time) param).toLocalTime());
+        }
+        if (param instanceof Timestamp) {
+            return toNebulaDateTime(((Timestamp) param).toLocalDateTime());
+        }
+        if (param instanceof java.util.Date) {
+            return toNebulaDateTime(LocalDateTime.ofInstant(((java.util.Date) param).toInstant(), ZoneId.systemDefault()));
+        }
+        if (param instanceof LocalDate) {
+            return toNebulaDate((LocalDate) param);
+        }
+        if (param instanceof LocalTime) {
+            return toNebulaTime((LocalTime) param);
+        }
+        if (param instanceof LocalDateTime) {
+            return toNebulaDateTime((LocalDateTime) param);
+        }
+        throw new SQLException(String.format("Parameter type %s can not be bound, disable %s to send it as literal.",
+                param.getClass().getName(), NebulaPropertyKey.PARAMETERBINDING));
+    }
+
+    private static com.vesoft.nebula.Date toNebulaDate(LocalDate date) {
+        return new com.vesoft.nebula.Date((short) date.getYear(), (byte) date.getMonthValue(),
+                (byte) date.getDayOfMonth());
+    }
+
+    private static com.vesoft.nebula.Time toNebulaTime(LocalTime time) {
+        return new com.vesoft.nebula.Time((byte) time.getHour(), (byte) time.getMinute(),
+                (byte) time.getSecond(), time.getNano() / 1000);
+    }
+
+    private static com.vesoft.nebula.DateTime toNebulaDateTime(LocalDateTime dateTime) {
+        return new com.vesoft.nebula.DateTime((short) dateTime.getYear(), (byte) dateTime.getMonthValue(),
+                (byte) dateTime.getDayOfMonth(), (byte) dateTime.getHour(), (byte) dateTime.getMinute(),
+                (byte) dateTime.getSecond(), dateTime.getNano() / 1000);
+    }
 
-            digested = NAMED_PARAMETER_REGEX.matcher(digested).replaceFirst(Objects.toString(param));
-            index++;
+    /**
+     * render the nGql with the parameters as literals. The text was split at the parameters when
+     * it was prepared, so this is one pass appending into a buffer kept by the statement.
+     */
+    protected String replacePlaceHolderWithParam(String rawNGQL) throws SQLException {
+        NebulaPreparedTemplate template = rawNGQL == this.rawNGQL ? this.template : new NebulaPreparedTemplate(rawNGQL);
+        String[] segments = template.getSegments();
+        StringBuilder digested = renderBuffer(template.getRenderSizeHint());
+        digested.append(segments[0]);
+        for (int index = 1; index < segments.length; index++) {
+            appendParameter(digested, index);
+            digested.append(segments[index]);
         }
+        return digested.toString();
+    }
 
-        return digested;
+    private void checkParameterSet(int index) throws SQLException {
+        if (slots.kind(index) == NebulaParameterSlots.UNSET) {
+            throw new SQLException(String.format("Can not get param in index [%d], please check your nGql.", index));
+        }
+    }
+
+    /**
+     * append the parameter in slot index, primitives straight from their lane.
+     */
+    private void appendParameter(StringBuilder digested, int index) throws SQLException {
+        switch (slots.kind(index)) {
+            case NebulaParameterSlots.INT:
+            case NebulaParameterSlots.LONG:
+                digested.append(slots.getLong(index));
+                break;
+            case NebulaParameterSlots.DOUBLE:
+                NebulaLiteralEncoder.checkFinite(slots.getDouble(index));
+                digested.append(slots.getDouble(index));
+                break;
+            case NebulaParameterSlots.FLOAT:
+                NebulaLiteralEncoder.checkFinite(slots.getDouble(index));
+                digested.append((float) slots.getDouble(index));
+                break;
+            case NebulaParameterSlots.BOOLEAN:
+                digested.append(slots.getBoolean(index));
+                break;
+            case NebulaParameterSlots.OBJECT:
+                appendParameter(digested, slots.getObject(index));
+                break;
+            default:
+                checkParameterSet(index);
+        }
+    }
+
+    private StringBuilder renderBuffer(int sizeHint) {
+        if (renderBuffer == null) {
+            renderBuffer = new StringBuilder(sizeHint);
+        }
+        renderBuffer.setLength(0);
+        renderBuffer.ensureCapacity(sizeHint);
+        return renderBuffer;
+    }
+
+    protected void appendParameter(StringBuilder digested, Object param) throws SQLException {
+        NebulaLiteralEncoder.append(digested, param);
+    }
+
+    /**
+     * queue the statement with the current parameters, rendered as literals also with
+     * parameterBinding. For an INSERT only its rows are kept, see {@link #executeBatch()}.
+     */
+    @Override
+    public void addBatch() throws SQLException {
+        this.checkClosed();
+        String rendered = replacePlaceHolderWithParam(this.rawNGQL);
+        this.batch.add(template.isInsertRows() ? template.getRow(rendered) : rendered);
+    }
+
+    /**
+     * the rows queued for an INSERT VERTEX or INSERT EDGE go under one INSERT per request, as many
+     * as fit in batchMaxBytes. Other statements are packed like the batch of a Statement.
+     */
+    @Override
+    public int[] executeBatch() throws SQLException {
+        this.checkClosed();
+        List<String> entries = new ArrayList<>(this.batch);
+        this.batch.clear();
+        if (!template.isInsertRows()) {
+            return executeBatch(entries);
+        }
+        int maxBytes = this.nebulaConnection.getNebulaConfig().getBatchMaxBytes();
+        return executePacks(NebulaBatchPacker.packRows(template.getInsertHead(), entries, maxBytes), entries.size());
     }
 
     /**  set methods  */
 
     @Override
     public void setBoolean(int parameterIndex, boolean x) throws SQLException {
-        insertParameter(parameterIndex, x);
+        checkParameterIndex(parameterIndex);
+        slots.setBoolean(parameterIndex, x);
     }
 
     @Override
     public void setInt(int parameterIndex, int x) throws SQLException {
-        insertParameter(parameterIndex, x);
+        checkParameterIndex(parameterIndex);
+        slots.setInt(parameterIndex, x);
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        checkParameterIndex(parameterIndex);
+        slots.setLong(parameterIndex, x);
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        checkParameterIndex(parameterIndex);
+        slots.setFloat(parameterIndex, x);
     }
 
     @Override
     public void setDouble(int parameterIndex, double x) throws SQLException {
+        checkParameterIndex(parameterIndex);
+        slots.setDouble(parameterIndex, x);
+    }
+
+    /**
+     * written as a plain decimal literal, graphd reads it as an int or a float.
+     */
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
         insertParameter(parameterIndex, x);
     }
 
@@ -137,10 +345,20 @@ public class NebulaPreparedStatementImpl extends NebulaStatementImpl implements
         insertParameter(parameterIndex, time);
     }
 
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        insertParameter(parameterIndex, x);
+    }
+
     public void setDatetime(int parameterIndex, java.util.Date datetime) throws SQLException {
         insertParameter(parameterIndex, datetime);
     }
 
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        insertParameter(parameterIndex, x);
+    }
+
     @Override
     public ParameterMetaData getParameterMetaData() throws SQLException {
         return NebulaParameterMetaData.getInstance(this);
@@ -149,25 +367,24 @@ public class NebulaPreparedStatementImpl extends NebulaStatementImpl implements
 
     @Override
     public void checkParamsNumber(int parameterIndex) throws SQLException {
-        if (parameterIndex > this.parametersNumber) {
+        if (parameterIndex < 1 || parameterIndex > this.parametersNumber) {
             throw new SQLException("ParameterIndex does not correspond to a parameter marker in the nGQL statement.");
         }
     }
 
     protected int namedParameterCount(String rawNGQL) {
-        int max = 0;
-        Matcher matcher = NAMED_PARAMETER_REGEX.matcher(rawNGQL);
-        while (matcher.find()) {
-            max++;
-        }
-        return max;
+        return NebulaPreparedTemplate.countParameters(rawNGQL);
     }
 
     @Override
     public void insertParameter(int parameterIndex, Object obj) throws SQLException {
+        checkParameterIndex(parameterIndex);
+        slots.setObject(parameterIndex, obj);
+    }
+
+    private void checkParameterIndex(int parameterIndex) throws SQLException {
         this.checkClosed();
         this.checkParamsNumber(parameterIndex);
-        this.parameters.put(parameterIndex, obj);
     }
 
 
@@ -179,9 +396,12 @@ public class NebulaPreparedStatementImpl extends NebulaStatementImpl implements
     @Override
     public void clearParameters() throws SQLException {
         checkClosed();
-        this.parameters.clear();
+        slots.clear();
     }
 
+    /**
+     * the parameters set, by Integer index, backed by the typed slots of the statement.
+     */
     public Map<Object, Object> getParameters() {
         return parameters;
     }
@@ -206,6 +426,18 @@ public class NebulaPreparedStatementImpl extends NebulaStatementImpl implements
         throw new SQLException("Method executeQuery(String) cannot be called on PreparedStatement.");
     }
 
+    @Override public CompletableFuture<NebulaResultSet> executeAsync(String sql) throws SQLException {
+        throw new SQLException("Method executeAsync(String) cannot be called on PreparedStatement.");
+    }
+
+    @Override public CompletableFuture<NebulaResultSet> executeQueryAsync(String sql) throws SQLException {
+        throw new SQLException("Method executeQueryAsync(String) cannot be called on PreparedStatement.");
+    }
+
+    @Override public void addBatch(String sql) throws SQLException {
+        throw new SQLException("Method addBatch(String) cannot be called on PreparedStatement.");
+    }
+
     @Override public int executeUpdate(String sql) throws SQLException {
         throw new SQLException("Method executeUpdate(String) cannot be called on PreparedStatement.");
     }
@@ -237,26 +469,6 @@ public class NebulaPreparedStatementImpl extends NebulaStatementImpl implements
         throw  ExceptionBuilder.buildUnsupportedOperationException();
     }
 
-    @Override
-    public void setLong(int parameterIndex, long x) throws SQLException {
-        throw  ExceptionBuilder.buildUnsupportedOperationException();
-    }
-
-    @Override
-    public void setFloat(int parameterIndex, float x) throws SQLException {
-        throw  ExceptionBuilder.buildUnsupportedOperationException();
-    }
-
-    @Override
-    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
-        throw  ExceptionBuilder.buildUnsupportedOperationException();
-    }
-
-    @Override
-    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
-        throw  ExceptionBuilder.buildUnsupportedOperationException();
-    }
-
     @Override
     public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
         insertParameter(parameterIndex, x);
@@ -312,20 +524,13 @@ public class NebulaPreparedStatementImpl extends NebulaStatementImpl implements
             setTimestamp(parameterIndex, Timestamp.valueOf((java.time.LocalDateTime) x));
         } else if (x instanceof java.time.OffsetDateTime) {
             setObject(parameterIndex, ((OffsetDateTime) x).toLocalDateTime());
+        } else if (x instanceof Collection || x instanceof Map) {
+            insertParameter(parameterIndex, x);
         } else {
             throw new SQLException(String.format("Unsupported parameter type %s at index %d", x.getClass().getName(), parameterIndex));
         }
     }
 
-    @Override
-    public void addBatch() throws SQLException {
-        throw  ExceptionBuilder.buildUnsupportedOperationException();
-    }
-
-    @Override
-    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
-        throw  ExceptionBuilder.buildUnsupportedOperationException();
-    }
 
     @Override
     public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
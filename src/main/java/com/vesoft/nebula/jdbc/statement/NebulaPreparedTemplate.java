@@ -0,0 +1,193 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.statement;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * What a PreparedStatement learns from its nGql text alone: the parameter count, the
+ * {@link NebulaStatementKind} of the text, and where the row of an INSERT starts. It does not
+ * change once built, so statements prepared with the same text share one instance.
+ */
+public class NebulaPreparedTemplate {
+
+    /**
+     * room reserved for each rendered parameter, the buffer grows if it is not enough.
+     */
+    private static final int PARAMETER_SIZE_HINT = 8;
+    private static final Pattern INSERT = Pattern.compile("^\\s*insert\\s+(vertex|edge)\\s", Pattern.CASE_INSENSITIVE);
+
+    private final String rawNGQL;
+    private final int parametersNumber;
+    private final String[] segments;
+    private final int renderSizeHint;
+    private final int rowStart;
+    private final int rowEnd;
+    private volatile String parameterizedNGQL;
+    private final NebulaStatementKind kind;
+
+    public NebulaPreparedTemplate(String rawNGQL) {
+        this.rawNGQL = rawNGQL;
+        this.segments = split(rawNGQL);
+        this.parametersNumber = segments.length - 1;
+        this.renderSizeHint = rawNGQL.length() - parametersNumber + parametersNumber * PARAMETER_SIZE_HINT;
+        int end = rawNGQL.length();
+        while (end > 0 && (rawNGQL.charAt(end - 1) == ';' || Character.isWhitespace(rawNGQL.charAt(end - 1)))) {
+            end--;
+        }
+        this.rowStart = INSERT.matcher(rawNGQL).lookingAt() ? rowStart(rawNGQL, end) : -1;
+        this.rowEnd = rawNGQL.length() - end;
+        this.kind = NebulaStatementClassifier.classify(rawNGQL);
+    }
+
+    /**
+     * the offset of the rows after the VALUES of an INSERT, or -1 when rows of several
+     * executions can not be put under one INSERT: a parameter before VALUES, or a ; after it.
+     */
+    private int rowStart(String rawNGQL, int end) {
+        int values = -1;
+        char quote = 0;
+        for (int i = 0; i < end; i++) {
+            char c = rawNGQL.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'' || c == '`') {
+                quote = c;
+            } else if (c == ';' && values >= 0) {
+                return -1;
+            } else if (values < 0 && rawNGQL.regionMatches(true, i, "values", 0, 6)
+                    && Character.isWhitespace(rawNGQL.charAt(i - 1))
+                    && i + 6 < end && Character.isWhitespace(rawNGQL.charAt(i + 6))) {
+                values = i + 6;
+                i = values;
+            }
+        }
+        return values >= 0 && values <= segments[0].length() ? values : -1;
+    }
+
+    static int countParameters(String rawNGQL) {
+        return split(rawNGQL).length - 1;
+    }
+
+    /**
+     * cut the text at every ? that is a parameter into the literal parts around the parameters.
+     * A ? is a parameter when an even number of double quotes follows it, the same rule as
+     * {@link NebulaPreparedStatementImpl#NAMED_PARAMETER_REGEX}, but found in two linear passes
+     * instead of one regex scan to the end per ?.
+     */
+    static String[] split(String rawNGQL) {
+        int quotesAfter = 0;
+        for (int i = 0; i < rawNGQL.length(); i++) {
+            if (rawNGQL.charAt(i) == '"') {
+                quotesAfter++;
+            }
+        }
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < rawNGQL.length(); i++) {
+            char c = rawNGQL.charAt(i);
+            if (c == '"') {
+                quotesAfter--;
+            } else if (c == '?' && quotesAfter % 2 == 0) {
+                segments.add(rawNGQL.substring(start, i));
+                start = i + 1;
+            }
+        }
+        segments.add(rawNGQL.substring(start));
+        return segments.toArray(new String[0]);
+    }
+
+    void checkReadOnly(NebulaStatementImpl statement) throws SQLException {
+        statement.checkReadOnly(kind);
+    }
+
+    void checkUpdate(NebulaStatementImpl statement) throws SQLException {
+        statement.checkUpdate(kind);
+    }
+
+    /**
+     * the kind of the text, classified once when the template is built.
+     */
+    public NebulaStatementKind getKind() {
+        return kind;
+    }
+
+    public String getRawNGQL() {
+        return rawNGQL;
+    }
+
+    public int getParametersNumber() {
+        return parametersNumber;
+    }
+
+    /**
+     * the literal parts of the text, parameter i goes between segment i - 1 and segment i.
+     */
+    String[] getSegments() {
+        return segments;
+    }
+
+    /**
+     * the text with parameter i written as $pi, for parameterBinding. The text is the same for
+     * every execution, the values go apart from it.
+     */
+    String getParameterizedNGQL() {
+        String text = parameterizedNGQL;
+        if (text == null) {
+            StringBuilder builder = new StringBuilder(renderSizeHint);
+            builder.append(segments[0]);
+            for (int index = 1; index < segments.length; index++) {
+                builder.append(parameterName(index)).append(segments[index]);
+            }
+            text = builder.toString();
+            parameterizedNGQL = text;
+        }
+        return text;
+    }
+
+    static String parameterName(int index) {
+        return "$" + parameterKey(index);
+    }
+
+    static String parameterKey(int index) {
+        return "p" + index;
+    }
+
+    /**
+     * whether rows of several executions may go under one INSERT, see {@link #getRow(String)}.
+     */
+    boolean isInsertRows() {
+        return rowStart >= 0;
+    }
+
+    /**
+     * the INSERT up to and including VALUES, rows follow it separated by commas.
+     */
+    String getInsertHead() {
+        return rawNGQL.substring(0, rowStart);
+    }
+
+    /**
+     * the rows part of a rendering of this template, without the trailing ;.
+     */
+    String getRow(String rendered) {
+        return rendered.substring(rowStart, rendered.length() - rowEnd).trim();
+    }
+
+    /**
+     * expected length of the rendered text, to presize the render buffer.
+     */
+    int getRenderSizeHint() {
+        return renderSizeHint;
+    }
+}
@@ -0,0 +1,47 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.statement;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used templates of a connection, keyed by their nGql text.
+ */
+public class NebulaPreparedTemplateCache {
+
+    private final int capacity;
+    private final Map<String, NebulaPreparedTemplate> templates;
+
+    public NebulaPreparedTemplateCache(int capacity) {
+        this.capacity = capacity;
+        this.templates = new LinkedHashMap<String, NebulaPreparedTemplate>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, NebulaPreparedTemplate> eldest) {
+                return size() > NebulaPreparedTemplateCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * the cached template of the text, parsed and cached now if there is none.
+     */
+    public synchronized NebulaPreparedTemplate get(String rawNGQL) {
+        if (capacity <= 0) {
+            return new NebulaPreparedTemplate(rawNGQL);
+        }
+        NebulaPreparedTemplate template = templates.get(rawNGQL);
+        if (template == null) {
+            template = new NebulaPreparedTemplate(rawNGQL);
+            templates.put(rawNGQL, template);
+        }
+        return template;
+    }
+
+    public synchronized int size() {
+        return templates.size();
+    }
+}
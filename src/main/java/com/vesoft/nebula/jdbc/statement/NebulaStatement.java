@@ -5,8 +5,10 @@
 
 package com.vesoft.nebula.jdbc.statement;
 
+import com.vesoft.nebula.jdbc.NebulaResultSet;
 import java.sql.Statement;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
 
 public interface NebulaStatement extends Statement {
 
@@ -16,4 +18,14 @@ public interface NebulaStatement extends Statement {
 
     void checkClosed() throws SQLException;
 
+    /**
+     * execute nGql without blocking the caller, cancelling the future cancels the statement.
+     */
+    CompletableFuture<NebulaResultSet> executeAsync(String nGql) throws SQLException;
+
+    /**
+     * executeQuery without blocking the caller, cancelling the future cancels the statement.
+     */
+    CompletableFuture<NebulaResultSet> executeQueryAsync(String nGql) throws SQLException;
+
 }
@@ -0,0 +1,179 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.statement;
+
+/**
+ * Tells the {@link NebulaStatementKind} of an nGql in one pass over its text, without allocating.
+ * Only the first word of each statement and of each stage after a | counts, strings, quoted names
+ * and comments are skipped. A read piped into a write is a write, USE does not count, and
+ * statements of different kinds make MULTI.
+ */
+public final class NebulaStatementClassifier {
+
+    private static final String[] READ = {"match", "optional", "go", "fetch", "lookup", "find", "get", "yield",
+            "unwind", "return", "with", "show", "desc", "describe", "order", "limit", "group", "sample"};
+    private static final String[] WRITE = {"insert", "update", "upsert", "delete"};
+    private static final String[] DDL = {"create", "drop", "alter", "rebuild", "clear"};
+    private static final String[] ADMIN = {"kill", "balance", "submit", "stop", "recover", "add", "sign",
+            "download", "ingest", "grant", "revoke", "change", "merge", "divide", "restore"};
+
+    private NebulaStatementClassifier() {
+    }
+
+    public static NebulaStatementKind classify(String nGql) {
+        NebulaStatementKind result = null;
+        NebulaStatementKind statement = null;
+        boolean expectHead = true;
+        boolean profiled = false;
+        boolean use = false;
+        boolean explained = false;
+        int depth = 0;
+        int length = nGql.length();
+        int i = 0;
+        while (i < length) {
+            char c = nGql.charAt(i);
+            if (c == '#' || (c == '/' && i + 1 < length && nGql.charAt(i + 1) == '/')) {
+                int newLine = nGql.indexOf('\n', i);
+                i = newLine < 0 ? length : newLine + 1;
+            } else if (c == '/' && i + 1 < length && nGql.charAt(i + 1) == '*') {
+                int close = nGql.indexOf("*/", i + 2);
+                i = close < 0 ? length : close + 2;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == ';') {
+                if (!use && statement != null) {
+                    result = result == null || result == statement ? statement : NebulaStatementKind.MULTI;
+                }
+                statement = null;
+                expectHead = true;
+                profiled = false;
+                use = false;
+                explained = false;
+                depth = 0;
+                i++;
+            } else if (c == '"' || c == '\'' || c == '`') {
+                if (expectHead && !profiled) {
+                    statement = pipe(statement, NebulaStatementKind.UNKNOWN);
+                    expectHead = false;
+                }
+                i = skipQuoted(nGql, i, c);
+            } else if (Character.isLetter(c)) {
+                int end = i + 1;
+                while (end < length && isWordPart(nGql.charAt(end))) {
+                    end++;
+                }
+                if (expectHead && !explained) {
+                    if (is(nGql, i, end, "profile") || (profiled && is(nGql, i, end, "format"))) {
+                        profiled = true;
+                    } else if (is(nGql, i, end, "explain")) {
+                        // an explained statement is planned, not run
+                        statement = pipe(statement, NebulaStatementKind.READ);
+                        explained = true;
+                        expectHead = false;
+                    } else if (is(nGql, i, end, "use")) {
+                        use = true;
+                        expectHead = false;
+                    } else {
+                        statement = pipe(statement, kindOf(nGql, i, end));
+                        expectHead = false;
+                    }
+                }
+                i = end;
+            } else if (c == '$' && expectHead) {
+                // $var = statement
+                i++;
+                while (i < length && (isWordPart(nGql.charAt(i)) || Character.isWhitespace(nGql.charAt(i))
+                        || nGql.charAt(i) == '=')) {
+                    if (nGql.charAt(i) == '=') {
+                        i++;
+                        break;
+                    }
+                    i++;
+                }
+            } else if (c == '(' || c == '[' || c == '{') {
+                depth++;
+                i++;
+            } else if (c == ')' || c == ']' || c == '}') {
+                depth = Math.max(0, depth - 1);
+                i++;
+            } else if (c == '|' && i + 1 < length && nGql.charAt(i + 1) == '|') {
+                // || is the logical or, not a pipe
+                i += 2;
+            } else if (c == '|' && depth == 0 && !explained) {
+                expectHead = true;
+                i++;
+            } else {
+                if (expectHead && c != '=') {
+                    statement = pipe(statement, NebulaStatementKind.UNKNOWN);
+                    expectHead = false;
+                }
+                i++;
+            }
+        }
+        if (!use && statement != null) {
+            result = result == null || result == statement ? statement : NebulaStatementKind.MULTI;
+        }
+        return result == null ? NebulaStatementKind.UNKNOWN : result;
+    }
+
+    /**
+     * the kind of a statement whose stages are of kinds current and next.
+     */
+    private static NebulaStatementKind pipe(NebulaStatementKind current, NebulaStatementKind next) {
+        if (current == null || current == next || current == NebulaStatementKind.READ) {
+            return next;
+        }
+        return next == NebulaStatementKind.READ ? current : NebulaStatementKind.MULTI;
+    }
+
+    private static NebulaStatementKind kindOf(String nGql, int start, int end) {
+        if (isAny(nGql, start, end, READ)) {
+            return NebulaStatementKind.READ;
+        }
+        if (isAny(nGql, start, end, WRITE)) {
+            return NebulaStatementKind.WRITE;
+        }
+        if (isAny(nGql, start, end, DDL)) {
+            return NebulaStatementKind.DDL;
+        }
+        if (isAny(nGql, start, end, ADMIN)) {
+            return NebulaStatementKind.ADMIN;
+        }
+        return NebulaStatementKind.UNKNOWN;
+    }
+
+    private static boolean isAny(String nGql, int start, int end, String[] words) {
+        for (String word : words) {
+            if (is(nGql, start, end, word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean is(String nGql, int start, int end, String word) {
+        return end - start == word.length() && nGql.regionMatches(true, start, word, 0, word.length());
+    }
+
+    private static int skipQuoted(String nGql, int start, char quote) {
+        int i = start + 1;
+        while (i < nGql.length()) {
+            char c = nGql.charAt(i);
+            if (c == '\\' && quote != '`') {
+                i += 2;
+            } else if (c == quote) {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private static boolean isWordPart(char c) {
+        return c == '_' || Character.isLetterOrDigit(c);
+    }
+}
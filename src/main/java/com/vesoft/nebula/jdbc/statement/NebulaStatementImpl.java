@@ -7,25 +7,40 @@ package com.vesoft.nebula.jdbc.statement;
 
 import com.vesoft.nebula.jdbc.NebulaConnection;
 import com.vesoft.nebula.jdbc.NebulaResultSet;
+import com.vesoft.nebula.jdbc.NebulaRunningQuery;
 import com.vesoft.nebula.jdbc.utils.ExceptionBuilder;
+import com.vesoft.nebula.jdbc.utils.NebulaConfig;
+import java.sql.BatchUpdateException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.SQLWarning;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class NebulaStatementImpl implements NebulaStatement {
     protected final Logger log = LoggerFactory.getLogger(this.getClass());
-    protected final String[] updateKeyword = {"update", "delete", "insert", "upsert", "create", "drop", "alter", "rebuild"};
-    protected final String[] queryKeyword = {"match", "lookup", "go", "fetch", "find", "subgraph", "show", "desc", "describe"};
 
     protected String nGql;
     protected NebulaConnection nebulaConnection;
     protected boolean isExecuteSucceed;
     protected ResultSet currentResultSet;
     protected boolean isClosed = false;
+    protected final List<String> batch = new ArrayList<>();
+    protected final Set<NebulaRunningQuery> runningQueries = ConcurrentHashMap.newKeySet();
+    private final Set<NebulaPagedResultSet> pagedResultSets = ConcurrentHashMap.newKeySet();
+    protected volatile int queryTimeout = 0;
+    protected int maxRows = 0;
+    protected int fetchSize = 0;
 
 
     public NebulaStatementImpl(NebulaConnection connection) {
@@ -38,23 +53,146 @@ public class NebulaStatementImpl implements NebulaStatement {
      */
     @Override
     public boolean execute(String nGql) throws SQLException {
+        return execute(nGql, NebulaStatementClassifier.classify(nGql) == NebulaStatementKind.READ);
+    }
+
+    /**
+     * @param readOnly the nGql is a {@link NebulaStatementKind#READ}, so the connection may retry and hedge it
+     */
+    protected boolean execute(String nGql, boolean readOnly) throws SQLException {
+        return execute(nGql, null, readOnly);
+    }
+
+    /**
+     * @param parameters values of the $name parameters in nGql, null when they are literals in it
+     */
+    protected boolean execute(String nGql, Map<String, Object> parameters, boolean readOnly) throws SQLException {
         this.checkClosed();
         this.nGql = nGql;
-        com.vesoft.nebula.client.graph.data.ResultSet nebulaResultSet = this.nebulaConnection.execute(nGql);
-        isExecuteSucceed = nebulaResultSet.isSucceeded();
-        if(!isExecuteSucceed){
+        isExecuteSucceed = false;
+        this.currentResultSet = run(nGql, parameters, readOnly);
+        isExecuteSucceed = true;
+        return true;
+    }
+
+    /**
+     * run nGql on the connection, the statement keeps no state of it.
+     */
+    protected NebulaResultSet run(String nGql, Map<String, Object> parameters, boolean readOnly) throws SQLException {
+        return run(nGql, parameters, readOnly, new NebulaRunningQuery());
+    }
+
+    /**
+     * @param query lets {@link #cancel()} and queryTimeout kill the statement in graphd
+     */
+    protected NebulaResultSet run(String nGql, Map<String, Object> parameters, boolean readOnly,
+                                  NebulaRunningQuery query) throws SQLException {
+        int maxRows = this.maxRows;
+        int fetchSize = this.fetchSize;
+        if (readOnly && fetchSize > 0) {
+            int size = maxRows > 0 ? Math.min(fetchSize, maxRows) : fetchSize;
+            String firstPage = NebulaLimitPushdown.page(nGql, 0, size);
+            if (firstPage != null) {
+                return new NebulaPagedResultSet(this, nGql, parameters, query, fetchSize, maxRows,
+                        runNative(firstPage, parameters, true, query));
+            }
+        }
+        if (readOnly && maxRows > 0) {
+            nGql = NebulaLimitPushdown.pushDown(nGql, maxRows);
+        }
+        return new NebulaResultSet(runNative(nGql, parameters, readOnly, query), this, maxRows);
+    }
+
+    /**
+     * run nGql on the connection and fail with SQLException when graphd fails it.
+     */
+    com.vesoft.nebula.client.graph.data.ResultSet runNative(String nGql, Map<String, Object> parameters,
+                                                            boolean readOnly, NebulaRunningQuery query)
+            throws SQLException {
+        com.vesoft.nebula.client.graph.data.ResultSet nebulaResultSet;
+        runningQueries.add(query);
+        try {
+            nebulaResultSet = runTimed(nGql, parameters, readOnly, query);
+        } finally {
+            runningQueries.remove(query);
+        }
+        if(!nebulaResultSet.isSucceeded()){
             int errorCode = nebulaResultSet.getErrorCode();
             String errorMessage = nebulaResultSet.getErrorMessage();
             throw new SQLException(String.format("nGql \"%s\" executed failed, error code: %d, error message: %s", nGql, errorCode, errorMessage));
         }
-        this.currentResultSet = new NebulaResultSet(nebulaResultSet, this);
-        return true;
+        return nebulaResultSet;
+    }
+
+    /**
+     * run nGql under queryTimeout, a failed result is returned as is unless the query was
+     * cancelled. The caller puts query in runningQueries so {@link #cancel()} finds it.
+     */
+    private com.vesoft.nebula.client.graph.data.ResultSet runTimed(String nGql, Map<String, Object> parameters,
+                                                                   boolean readOnly, NebulaRunningQuery query)
+            throws SQLException {
+        if (query.isCancelled()) {
+            throw cancelled(query, null);
+        }
+        ScheduledFuture<?> timeout = queryTimeout > 0
+                ? this.nebulaConnection.scheduleTimeout(query, queryTimeout * 1000L) : null;
+        com.vesoft.nebula.client.graph.data.ResultSet nebulaResultSet;
+        try {
+            nebulaResultSet = readOnly
+                    ? this.nebulaConnection.executeRead(nGql, parameters, query)
+                    : this.nebulaConnection.execute(nGql, parameters, query);
+        } catch (SQLException e) {
+            throw query.isCancelled() ? cancelled(query, e) : e;
+        } finally {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+        }
+        if (!nebulaResultSet.isSucceeded() && query.isCancelled()) {
+            throw cancelled(query, null);
+        }
+        return nebulaResultSet;
+    }
+
+    /**
+     * run nGql on the async executor of the connection. The statement keeps no state of it, so
+     * many can be in flight at once, they run in parallel up to sessionsPerConnection.
+     */
+    @Override
+    public CompletableFuture<NebulaResultSet> executeAsync(String nGql) throws SQLException {
+        return submit(nGql, null, NebulaStatementClassifier.classify(nGql) == NebulaStatementKind.READ);
+    }
+
+    @Override
+    public CompletableFuture<NebulaResultSet> executeQueryAsync(String nGql) throws SQLException {
+        this.checkReadOnly(nGql);
+        return submit(nGql, null, true);
+    }
+
+    protected CompletableFuture<NebulaResultSet> submit(String nGql, Map<String, Object> parameters, boolean readOnly)
+            throws SQLException {
+        this.checkClosed();
+        NebulaRunningQuery query = new NebulaRunningQuery();
+        return submit(query, () -> run(nGql, parameters, readOnly, query));
+    }
+
+    /**
+     * run task on the async executor, cancelling the future kills query.
+     */
+    <T> CompletableFuture<T> submit(NebulaRunningQuery query, NebulaFuture.Task<T> task) throws SQLException {
+        NebulaFuture<T> future = new NebulaFuture<>(() -> cancelQuietly(query));
+        try {
+            this.nebulaConnection.getAsyncExecutor().execute(() -> future.run(task));
+        } catch (RejectedExecutionException e) {
+            throw new SQLException("The async executor rejected the statement.", e);
+        }
+        return future;
     }
 
     @Override
     public ResultSet executeQuery(String nGql) throws SQLException {
         this.checkReadOnly(nGql);
-        this.execute(nGql);
+        this.execute(nGql, true);
         return currentResultSet;
     }
 
@@ -66,7 +204,7 @@ public class NebulaStatementImpl implements NebulaStatement {
     @Override
     public int executeUpdate(String nGql) throws SQLException {
         this.checkUpdate(nGql);
-        this.execute(nGql);
+        this.execute(nGql, false);
         return 0;
     }
 
@@ -79,44 +217,53 @@ public class NebulaStatementImpl implements NebulaStatement {
 
     @Override
     public void checkReadOnly(String nGql) throws SQLException {
-        String lowerCaseNGQL = nGql.toLowerCase();
-        List<String> splitNGQL = Arrays.asList(lowerCaseNGQL.split(" "));
-        for (String updateItem : updateKeyword) {
-            if(splitNGQL.contains(updateItem)){
-                throw new SQLException(String.format("Method executeQuery() can only execute nGql to query data, " +
-                        "but the current nGql contains the update keyword [%s], " +
-                        "please modify your nGql or use executeUpdate().", updateItem));
-            }
-        }
-        for (String queryItem : queryKeyword) {
-            if(splitNGQL.contains(queryItem)){
-                return;
-            }
+        checkReadOnly(NebulaStatementClassifier.classify(nGql));
+    }
+
+    protected void checkReadOnly(NebulaStatementKind kind) throws SQLException {
+        if (kind != NebulaStatementKind.READ) {
+            throw new SQLException(String.format("Method executeQuery() can only execute nGql to query data, " +
+                    "but the current nGql is classified as [%s], " +
+                    "please modify your nGql or use executeUpdate(), execute().", kind));
         }
-        throw new SQLException("Method executeQuery() can only execute nGql to query data, " +
-                "but the current nGql do not contains any query keyword in " + Arrays.toString(queryKeyword) +
-                ", please modify your nGql or use executeUpdate(), execute().");
     }
 
     @Override
     public void checkUpdate(String nGql) throws SQLException {
-        String lowerCaseNGQL = nGql.toLowerCase();
-        List<String> splitNGQL = Arrays.asList(lowerCaseNGQL.split(" "));
-        for (String updateItem : updateKeyword) {
-            if(splitNGQL.contains(updateItem)){
-                return;
-            }
+        checkUpdate(NebulaStatementClassifier.classify(nGql));
+    }
+
+    /**
+     * WRITE, DDL and MULTI may run as updates, READ, ADMIN and UNKNOWN need execute().
+     */
+    protected void checkUpdate(NebulaStatementKind kind) throws SQLException {
+        if (kind != NebulaStatementKind.WRITE && kind != NebulaStatementKind.DDL && kind != NebulaStatementKind.MULTI) {
+            throw new SQLException(String.format("Method executeUpdate() can only execute nGql to update data or schema, " +
+                    "but the current nGql is classified as [%s], " +
+                    "please modify your nGql or use executeQuery(), execute().", kind));
         }
-        throw new SQLException("Method executeUpdate() can only execute nGql to update data, " +
-                "but the current nGql do not contains any update keyword in " + Arrays.toString(updateKeyword) +
-                ", please modify your nGql or use executeQuery(), execute().");
     }
 
 
 
+    /**
+     * close the statement, result sets still reading pages are closed with it, which cancels the
+     * page they prefetch.
+     */
     @Override
     public void close() throws SQLException {
         this.isClosed = true;
+        for (NebulaPagedResultSet resultSet : pagedResultSets) {
+            resultSet.close();
+        }
+    }
+
+    void opened(NebulaPagedResultSet resultSet) {
+        pagedResultSets.add(resultSet);
+    }
+
+    void closed(NebulaPagedResultSet resultSet) {
+        pagedResultSets.remove(resultSet);
     }
 
     @Override
@@ -174,12 +321,21 @@ public class NebulaStatementImpl implements NebulaStatement {
 
     @Override
     public int getMaxRows() throws SQLException {
-        throw ExceptionBuilder.buildUnsupportedOperationException();
+        this.checkClosed();
+        return this.maxRows;
     }
 
+    /**
+     * a query returns at most max rows: the limit is pushed down to graphd as a LIMIT when the
+     * shape of the nGql allows it, the result is truncated in the client otherwise. 0 means no limit.
+     */
     @Override
     public void setMaxRows(int max) throws SQLException {
-        throw ExceptionBuilder.buildUnsupportedOperationException();
+        this.checkClosed();
+        if (max < 0) {
+            throw new SQLException(String.format("Max rows [%d] must not be negative.", max));
+        }
+        this.maxRows = max;
     }
 
     @Override
@@ -189,18 +345,53 @@ public class NebulaStatementImpl implements NebulaStatement {
 
     @Override
     public int getQueryTimeout() throws SQLException {
-//        return ((NebulaResultSet)currentResultSet).getNativeNebulaResultSet().getLatency();
-        throw ExceptionBuilder.buildUnsupportedOperationException();
+        this.checkClosed();
+        return this.queryTimeout;
     }
 
+    /**
+     * a statement running longer than seconds is killed in graphd, and fails with
+     * SQLTimeoutException. 0 means no limit.
+     */
     @Override
     public void setQueryTimeout(int seconds) throws SQLException {
-        throw ExceptionBuilder.buildUnsupportedOperationException();
+        this.checkClosed();
+        if (seconds < 0) {
+            throw new SQLException(String.format("Query timeout [%d] must not be negative.", seconds));
+        }
+        this.queryTimeout = seconds;
     }
 
+    /**
+     * kill the statements of this statement running in graphd, they fail with SQLException.
+     */
     @Override
     public void cancel() throws SQLException {
-        throw ExceptionBuilder.buildUnsupportedOperationException();
+        this.checkClosed();
+        for (NebulaRunningQuery query : runningQueries) {
+            this.nebulaConnection.cancel(query);
+        }
+    }
+
+    private void cancelQuietly(NebulaRunningQuery query) {
+        query.markCancelled();
+        try {
+            this.nebulaConnection.getAsyncExecutor().execute(() -> {
+                try {
+                    this.nebulaConnection.cancel(query);
+                } catch (SQLException e) {
+                    log.warn("cancel of an async statement failed: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("cancel of an async statement was rejected: {}", e.getMessage());
+        }
+    }
+
+    private static SQLException cancelled(NebulaRunningQuery query, Throwable cause) {
+        return query.isTimedOut()
+                ? new SQLTimeoutException("Statement was killed after its query timeout passed.", "HYT00", cause)
+                : new SQLException("Statement was cancelled.", "HY008", cause);
     }
 
     @Override
@@ -239,29 +430,89 @@ public class NebulaStatementImpl implements NebulaStatement {
         throw ExceptionBuilder.buildUnsupportedOperationException();
     }
 
+    /**
+     * a query whose rows are ordered last is read in pages of rows rows, see
+     * {@link NebulaPagedResultSet}. 0 reads the whole result at once.
+     */
     @Override
     public void setFetchSize(int rows) throws SQLException {
-        throw ExceptionBuilder.buildUnsupportedOperationException();
+        this.checkClosed();
+        if (rows < 0) {
+            throw new SQLException(String.format("Fetch size [%d] must not be negative.", rows));
+        }
+        this.fetchSize = rows;
     }
 
     @Override
     public int getFetchSize() throws SQLException {
-        throw ExceptionBuilder.buildUnsupportedOperationException();
+        this.checkClosed();
+        return this.fetchSize;
     }
 
     @Override
     public void addBatch(String sql) throws SQLException {
-        throw ExceptionBuilder.buildUnsupportedOperationException();
+        this.checkClosed();
+        this.batch.add(sql);
     }
 
     @Override
     public void clearBatch() throws SQLException {
-        throw ExceptionBuilder.buildUnsupportedOperationException();
+        this.checkClosed();
+        this.batch.clear();
     }
 
+    /**
+     * run the batch as ;-joined multi-statement requests, see {@link NebulaBatchPacker}. graphd
+     * gives no update counts, every statement that ran reports SUCCESS_NO_INFO. A failed request
+     * stops the batch: it does not tell which of its statements failed, and the ones before may
+     * have been applied, so the BatchUpdateException only counts the requests before it.
+     * queryTimeout applies to each request, and {@link #cancel()} kills the running one and stops
+     * the rest.
+     */
     @Override
     public int[] executeBatch() throws SQLException {
-        throw ExceptionBuilder.buildUnsupportedOperationException();
+        this.checkClosed();
+        List<String> statements = new ArrayList<>(this.batch);
+        this.batch.clear();
+        return executeBatch(statements);
+    }
+
+    protected int[] executeBatch(List<String> statements) throws SQLException {
+        NebulaConfig config = this.nebulaConnection.getNebulaConfig();
+        return executePacks(NebulaBatchPacker.pack(statements, config.getBatchMaxStatements(),
+                config.getBatchMaxBytes()), statements.size());
+    }
+
+    protected int[] executePacks(List<NebulaBatchPacker.Pack> packs, int size) throws SQLException {
+        int[] updateCounts = new int[size];
+        int done = 0;
+        NebulaRunningQuery query = new NebulaRunningQuery();
+        runningQueries.add(query);
+        try {
+            for (NebulaBatchPacker.Pack pack : packs) {
+                com.vesoft.nebula.client.graph.data.ResultSet result;
+                try {
+                    result = runTimed(pack.nGql, null, false, query);
+                } catch (SQLException e) {
+                    throw new BatchUpdateException(batchFailure(pack, e.getMessage()), e.getSQLState(),
+                            e.getErrorCode(), Arrays.copyOf(updateCounts, done), e);
+                }
+                if (!result.isSucceeded()) {
+                    throw new BatchUpdateException(batchFailure(pack, result.getErrorMessage()), null,
+                            result.getErrorCode(), Arrays.copyOf(updateCounts, done));
+                }
+                Arrays.fill(updateCounts, pack.from, pack.from + pack.count, SUCCESS_NO_INFO);
+                done = pack.from + pack.count;
+            }
+        } finally {
+            runningQueries.remove(query);
+        }
+        return updateCounts;
+    }
+
+    private static String batchFailure(NebulaBatchPacker.Pack pack, String errorMessage) {
+        return String.format("Batch statements %d to %d executed failed, error message: %s",
+                pack.from + 1, pack.from + pack.count, errorMessage);
     }
 
     @Override
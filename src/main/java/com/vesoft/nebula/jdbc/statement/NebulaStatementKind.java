@@ -0,0 +1,37 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.statement;
+
+/**
+ * What an nGql does, as told by {@link NebulaStatementClassifier}.
+ */
+public enum NebulaStatementKind {
+    /**
+     * reads data or schema only: MATCH, GO, FETCH, LOOKUP, SHOW, EXPLAIN and the like. It can be
+     * retried and hedged.
+     */
+    READ,
+    /**
+     * changes data: INSERT, UPDATE, UPSERT, DELETE, or a read piped into one of them.
+     */
+    WRITE,
+    /**
+     * changes schema: CREATE, DROP, ALTER, REBUILD, CLEAR.
+     */
+    DDL,
+    /**
+     * changes the cluster, jobs, users or sessions: KILL, BALANCE, SUBMIT JOB, GRANT and the like.
+     */
+    ADMIN,
+    /**
+     * several statements of different kinds.
+     */
+    MULTI,
+    /**
+     * starts with a word the classifier does not know, or is empty.
+     */
+    UNKNOWN
+}
@@ -0,0 +1,457 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.utils;
+
+import com.vesoft.nebula.client.graph.NebulaPoolConfig;
+import com.vesoft.nebula.client.graph.SessionPoolConfig;
+import com.vesoft.nebula.client.graph.data.CASignedSSLParam;
+import com.vesoft.nebula.client.graph.data.HostAddress;
+import com.vesoft.nebula.client.graph.data.SSLParam;
+import com.vesoft.nebula.client.graph.data.SelfSignedSSLParam;
+import com.vesoft.nebula.jdbc.balancer.CircuitBreaker;
+import com.vesoft.nebula.jdbc.balancer.NebulaBalancers;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+/**
+ * Typed view of the connection properties. Every {@link NebulaPropertyKey} is read once, from the
+ * url query or the given Properties, whether its value is a String or a boxed number, and checked
+ * before it reaches the pool config.
+ */
+public class NebulaConfig {
+
+    public static final int DEFAULT_MIN_CONNS_SIZE = 0;
+    public static final int DEFAULT_MAX_CONNS_SIZE = 10;
+    public static final int DEFAULT_TIMEOUT = 0;
+    public static final int DEFAULT_IDLE_TIME = 0;
+    public static final int DEFAULT_INTERVAL_IDLE = -1;
+    public static final int DEFAULT_WAIT_TIME = 0;
+    public static final double DEFAULT_MIN_CLUSTER_HEALTH_RATE = 1.0;
+    public static final int DEFAULT_HEALTH_CHECK_TIME = 600;
+    public static final int DEFAULT_CLEAN_TIME = 3600;
+    public static final double DEFAULT_HEDGE_PERCENTILE = 95;
+    public static final int DEFAULT_HEDGE_MIN_DELAY = 5;
+    public static final int DEFAULT_RETRY_TIMES = 0;
+    public static final int DEFAULT_RETRY_BACKOFF = 100;
+    public static final int DEFAULT_RETRY_MAX_BACKOFF = 2000;
+    public static final int DEFAULT_VALIDATION_WINDOW = 0;
+    public static final int DEFAULT_PREPARED_STATEMENT_CACHE_SIZE = 64;
+    public static final int DEFAULT_BATCH_MAX_STATEMENTS = 256;
+    public static final int DEFAULT_BATCH_MAX_BYTES = 1 << 20;
+
+    private final int minConnsSize;
+    private final int maxConnsSize;
+    private final int timeout;
+    private final int idleTime;
+    private final int intervalIdle;
+    private final int waitTime;
+    private final double minClusterHealthRate;
+    private final boolean enableSsl;
+    private final SSLParam.SignMode sslSignMode;
+    private final String caCrtFile;
+    private final String crtFile;
+    private final String keyFile;
+    private final String sslPassword;
+    private final boolean sessionPool;
+    private final int healthCheckTime;
+    private final int cleanTime;
+    private final boolean warmUp;
+    private final boolean lazyInit;
+    private final String loadBalancer;
+    private final boolean hedgeRead;
+    private final double hedgePercentile;
+    private final int hedgeMinDelay;
+    private final int retryTimes;
+    private final int retryBackoff;
+    private final int retryMaxBackoff;
+    private final int circuitBreakerFailures;
+    private final int circuitBreakerOpenTime;
+    private final int validationWindow;
+    private final int keepAliveTime;
+    private final int idleEvictTime;
+    private final int sessionsPerConnection;
+    private final SessionBinding sessionBinding;
+    private final int preparedStatementCacheSize;
+    private final boolean parameterBinding;
+    private final int batchMaxStatements;
+    private final int batchMaxBytes;
+    private final Executor asyncExecutor;
+
+    private NebulaConfig(Properties properties) throws SQLException {
+        this.minConnsSize = getInt(properties, NebulaPropertyKey.MINCONNSSIZE, DEFAULT_MIN_CONNS_SIZE, 0);
+        this.maxConnsSize = getInt(properties, NebulaPropertyKey.MAXCONNSSIZE, DEFAULT_MAX_CONNS_SIZE, 1);
+        this.timeout = getInt(properties, NebulaPropertyKey.TIMEOUT, DEFAULT_TIMEOUT, 0);
+        this.idleTime = getInt(properties, NebulaPropertyKey.IDLETIME, DEFAULT_IDLE_TIME, 0);
+        this.intervalIdle = getInt(properties, NebulaPropertyKey.INTERVALIDLE, DEFAULT_INTERVAL_IDLE, -1);
+        this.waitTime = getInt(properties, NebulaPropertyKey.WAITTIME, DEFAULT_WAIT_TIME, 0);
+        this.minClusterHealthRate = getDouble(properties, NebulaPropertyKey.MINCLUSTERHEALTHRATE,
+                DEFAULT_MIN_CLUSTER_HEALTH_RATE);
+        this.enableSsl = getBoolean(properties, NebulaPropertyKey.ENABLESSL, false);
+        this.sslSignMode = getSignMode(properties);
+        this.caCrtFile = getString(properties, NebulaPropertyKey.CACRTFILE);
+        this.crtFile = getString(properties, NebulaPropertyKey.CRTFILE);
+        this.keyFile = getString(properties, NebulaPropertyKey.KEYFILE);
+        this.sslPassword = getString(properties, NebulaPropertyKey.SSLPASSWORD);
+        this.sessionPool = getBoolean(properties, NebulaPropertyKey.SESSIONPOOL, false);
+        this.healthCheckTime = getInt(properties, NebulaPropertyKey.HEALTHCHECKTIME, DEFAULT_HEALTH_CHECK_TIME, 0);
+        this.cleanTime = getInt(properties, NebulaPropertyKey.CLEANTIME, DEFAULT_CLEAN_TIME, 0);
+        this.warmUp = getBoolean(properties, NebulaPropertyKey.WARMUP, false);
+        this.lazyInit = getBoolean(properties, NebulaPropertyKey.LAZYINIT, false);
+        this.loadBalancer = NebulaBalancers.normalize(getString(properties, NebulaPropertyKey.LOADBALANCER));
+        this.hedgeRead = getBoolean(properties, NebulaPropertyKey.HEDGEREAD, false);
+        this.hedgePercentile = getDouble(properties, NebulaPropertyKey.HEDGEPERCENTILE, DEFAULT_HEDGE_PERCENTILE);
+        this.hedgeMinDelay = getInt(properties, NebulaPropertyKey.HEDGEMINDELAY, DEFAULT_HEDGE_MIN_DELAY, 0);
+        this.retryTimes = getInt(properties, NebulaPropertyKey.RETRYTIMES, DEFAULT_RETRY_TIMES, 0);
+        this.retryBackoff = getInt(properties, NebulaPropertyKey.RETRYBACKOFF, DEFAULT_RETRY_BACKOFF, 0);
+        this.retryMaxBackoff = getInt(properties, NebulaPropertyKey.RETRYMAXBACKOFF, DEFAULT_RETRY_MAX_BACKOFF, 0);
+        this.circuitBreakerFailures = getInt(properties, NebulaPropertyKey.CIRCUITBREAKERFAILURES,
+                CircuitBreaker.DEFAULT_FAILURE_THRESHOLD, 0);
+        this.circuitBreakerOpenTime = getInt(properties, NebulaPropertyKey.CIRCUITBREAKEROPENTIME,
+                (int) CircuitBreaker.DEFAULT_OPEN_MILLIS, 0);
+        this.validationWindow = getInt(properties, NebulaPropertyKey.VALIDATIONWINDOW, DEFAULT_VALIDATION_WINDOW, 0);
+        this.keepAliveTime = getInt(properties, NebulaPropertyKey.KEEPALIVETIME, 0, 0);
+        this.idleEvictTime = getInt(properties, NebulaPropertyKey.IDLEEVICTTIME, 0, 0);
+        this.sessionsPerConnection = getInt(properties, NebulaPropertyKey.SESSIONSPERCONNECTION, 1, 1);
+        this.sessionBinding = SessionBinding.of(getString(properties, NebulaPropertyKey.SESSIONBINDING));
+        this.preparedStatementCacheSize = getInt(properties, NebulaPropertyKey.PREPAREDSTATEMENTCACHESIZE,
+                DEFAULT_PREPARED_STATEMENT_CACHE_SIZE, 0);
+        this.parameterBinding = getBoolean(properties, NebulaPropertyKey.PARAMETERBINDING, false);
+        this.batchMaxStatements = getInt(properties, NebulaPropertyKey.BATCHMAXSTATEMENTS,
+                DEFAULT_BATCH_MAX_STATEMENTS, 1);
+        this.batchMaxBytes = getInt(properties, NebulaPropertyKey.BATCHMAXBYTES, DEFAULT_BATCH_MAX_BYTES, 1);
+        this.asyncExecutor = getExecutor(properties, NebulaPropertyKey.ASYNCEXECUTOR);
+        validate();
+    }
+
+    /**
+     * parse and validate the connection properties, throw SQLException naming the offending key.
+     */
+    public static NebulaConfig parse(Properties properties) throws SQLException {
+        return new NebulaConfig(properties);
+    }
+
+    private void validate() throws SQLException {
+        if (minConnsSize > maxConnsSize) {
+            throw new SQLException(String.format("%s [%d] must not be greater than %s [%d].",
+                    NebulaPropertyKey.MINCONNSSIZE, minConnsSize, NebulaPropertyKey.MAXCONNSSIZE, maxConnsSize));
+        }
+        if (minClusterHealthRate < 0 || minClusterHealthRate > 1) {
+            throw new SQLException(String.format("%s [%s] must be in [0, 1].",
+                    NebulaPropertyKey.MINCLUSTERHEALTHRATE, minClusterHealthRate));
+        }
+        if (warmUp && lazyInit) {
+            throw new SQLException(String.format("%s and %s can not be enabled together.",
+                    NebulaPropertyKey.WARMUP, NebulaPropertyKey.LAZYINIT));
+        }
+        if (hedgePercentile <= 0 || hedgePercentile > 100) {
+            throw new SQLException(String.format("%s [%s] must be in (0, 100].",
+                    NebulaPropertyKey.HEDGEPERCENTILE, hedgePercentile));
+        }
+        if (hedgeRead && sessionPool) {
+            throw new SQLException(String.format("%s does not support %s, the session pool picks the "
+                    + "session of every request itself.", NebulaPropertyKey.SESSIONPOOL, NebulaPropertyKey.HEDGEREAD));
+        }
+        if (parameterBinding && sessionPool) {
+            throw new SQLException(String.format("%s does not support %s, the session pool can not execute "
+                    + "statements with parameters.", NebulaPropertyKey.SESSIONPOOL, NebulaPropertyKey.PARAMETERBINDING));
+        }
+        if (!enableSsl) {
+            return;
+        }
+        if (sslSignMode == SSLParam.SignMode.CA_SIGNED && (caCrtFile == null || crtFile == null || keyFile == null)) {
+            throw new SQLException(String.format("%s, %s and %s are required by CA signed ssl.",
+                    NebulaPropertyKey.CACRTFILE, NebulaPropertyKey.CRTFILE, NebulaPropertyKey.KEYFILE));
+        }
+        if (sslSignMode == SSLParam.SignMode.SELF_SIGNED && (crtFile == null || keyFile == null)) {
+            throw new SQLException(String.format("%s and %s are required by self signed ssl.",
+                    NebulaPropertyKey.CRTFILE, NebulaPropertyKey.KEYFILE));
+        }
+        if (sessionPool) {
+            throw new SQLException(String.format("%s does not support ssl, please disable %s.",
+                    NebulaPropertyKey.SESSIONPOOL, NebulaPropertyKey.ENABLESSL));
+        }
+    }
+
+    public NebulaPoolConfig toNebulaPoolConfig() {
+        NebulaPoolConfig nebulaPoolConfig = new NebulaPoolConfig();
+        nebulaPoolConfig.setMinConnSize(minConnsSize);
+        nebulaPoolConfig.setMaxConnSize(maxConnsSize);
+        nebulaPoolConfig.setTimeout(timeout);
+        nebulaPoolConfig.setIdleTime(idleTime);
+        nebulaPoolConfig.setIntervalIdle(intervalIdle);
+        nebulaPoolConfig.setWaitTime(waitTime);
+        nebulaPoolConfig.setMinClusterHealthRate(minClusterHealthRate);
+        if (enableSsl) {
+            nebulaPoolConfig.setEnableSsl(true);
+            nebulaPoolConfig.setSslParam(sslSignMode == SSLParam.SignMode.CA_SIGNED
+                    ? new CASignedSSLParam(caCrtFile, crtFile, keyFile)
+                    : new SelfSignedSSLParam(crtFile, keyFile, sslPassword));
+        }
+        return nebulaPoolConfig;
+    }
+
+    public SessionPoolConfig toSessionPoolConfig(List<HostAddress> addresses, String graphSpace,
+                                                 String user, String password) throws SQLException {
+        try {
+            // a SessionPool always keeps at least one session
+            return new SessionPoolConfig(addresses, graphSpace, user, password)
+                    .setMinSessionSize(Math.max(1, minConnsSize))
+                    .setMaxSessionSize(maxConnsSize)
+                    .setTimeout(timeout)
+                    .setWaitTime(waitTime)
+                    .setHealthCheckTime(healthCheckTime)
+                    .setCleanTime(cleanTime);
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("Invalid session pool config: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * get the raw value of the key, values put as objects into Properties are not visible to
+     * getProperty() so both lookups are needed.
+     */
+    static Object getValue(Properties properties, NebulaPropertyKey key) {
+        Object value = properties.get(key.getKeyName());
+        if (value == null) {
+            value = properties.getProperty(key.getKeyName());
+        }
+        if (value instanceof String && ((String) value).trim().isEmpty()) {
+            return null;
+        }
+        return value;
+    }
+
+    static int getInt(Properties properties, NebulaPropertyKey key, int defaultValue, int min) throws SQLException {
+        Object value = getValue(properties, key);
+        if (value == null) {
+            return defaultValue;
+        }
+        int intValue;
+        try {
+            intValue = value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new SQLException(String.format("%s [%s] is not an integer.", key, value), e);
+        }
+        if (intValue < min) {
+            throw new SQLException(String.format("%s [%d] must not be less than %d.", key, intValue, min));
+        }
+        return intValue;
+    }
+
+    static double getDouble(Properties properties, NebulaPropertyKey key, double defaultValue) throws SQLException {
+        Object value = getValue(properties, key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new SQLException(String.format("%s [%s] is not a number.", key, value), e);
+        }
+    }
+
+    static boolean getBoolean(Properties properties, NebulaPropertyKey key, boolean defaultValue) throws SQLException {
+        Object value = getValue(properties, key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        String stringValue = value.toString().trim();
+        if ("true".equalsIgnoreCase(stringValue)) {
+            return true;
+        } else if ("false".equalsIgnoreCase(stringValue)) {
+            return false;
+        }
+        throw new SQLException(String.format("%s [%s] is not a boolean.", key, value));
+    }
+
+    static String getString(Properties properties, NebulaPropertyKey key) {
+        Object value = getValue(properties, key);
+        return value == null ? null : value.toString().trim();
+    }
+
+    /**
+     * an Executor instance, or virtual for a virtual thread per statement on Java 21.
+     */
+    private static Executor getExecutor(Properties properties, NebulaPropertyKey key) throws SQLException {
+        Object value = getValue(properties, key);
+        if (value instanceof String && "virtual".equalsIgnoreCase(((String) value).trim())) {
+            return VirtualThreads.executor();
+        }
+        if (value != null && !(value instanceof Executor)) {
+            throw new SQLException(String.format(
+                    "%s must be virtual or a java.util.concurrent.Executor instance, not [%s].", key, value));
+        }
+        return (Executor) value;
+    }
+
+    private static SSLParam.SignMode getSignMode(Properties properties) throws SQLException {
+        String signMode = getString(properties, NebulaPropertyKey.SSLSIGNMODE);
+        if (signMode == null) {
+            return SSLParam.SignMode.CA_SIGNED;
+        }
+        switch (signMode.toLowerCase()) {
+            case "ca":
+            case "ca_signed":
+                return SSLParam.SignMode.CA_SIGNED;
+            case "self":
+            case "self_signed":
+                return SSLParam.SignMode.SELF_SIGNED;
+            default:
+                throw new SQLException(String.format("%s [%s] should be one of [ca_signed, self_signed].",
+                        NebulaPropertyKey.SSLSIGNMODE, signMode));
+        }
+    }
+
+    public int getMinConnsSize() {
+        return minConnsSize;
+    }
+
+    public int getMaxConnsSize() {
+        return maxConnsSize;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public int getIdleTime() {
+        return idleTime;
+    }
+
+    public int getIntervalIdle() {
+        return intervalIdle;
+    }
+
+    public int getWaitTime() {
+        return waitTime;
+    }
+
+    public double getMinClusterHealthRate() {
+        return minClusterHealthRate;
+    }
+
+    public boolean isEnableSsl() {
+        return enableSsl;
+    }
+
+    public boolean isSessionPool() {
+        return sessionPool;
+    }
+
+    public int getHealthCheckTime() {
+        return healthCheckTime;
+    }
+
+    public int getCleanTime() {
+        return cleanTime;
+    }
+
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    public boolean isLazyInit() {
+        return lazyInit;
+    }
+
+    public String getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    public boolean isHedgeRead() {
+        return hedgeRead;
+    }
+
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    public int getHedgeMinDelay() {
+        return hedgeMinDelay;
+    }
+
+    public int getRetryTimes() {
+        return retryTimes;
+    }
+
+    public int getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public int getRetryMaxBackoff() {
+        return retryMaxBackoff;
+    }
+
+    public int getCircuitBreakerFailures() {
+        return circuitBreakerFailures;
+    }
+
+    public int getCircuitBreakerOpenTime() {
+        return circuitBreakerOpenTime;
+    }
+
+    public int getValidationWindow() {
+        return validationWindow;
+    }
+
+    /**
+     * ms without a successful request after which the session is pinged, 0 for never.
+     */
+    public int getKeepAliveTime() {
+        return keepAliveTime;
+    }
+
+    /**
+     * ms without a statement after which the session is given back, 0 for never.
+     */
+    public int getIdleEvictTime() {
+        return idleEvictTime;
+    }
+
+    public int getSessionsPerConnection() {
+        return sessionsPerConnection;
+    }
+
+    public SessionBinding getSessionBinding() {
+        return sessionBinding;
+    }
+
+    public int getPreparedStatementCacheSize() {
+        return preparedStatementCacheSize;
+    }
+
+    public boolean isParameterBinding() {
+        return parameterBinding;
+    }
+
+    public int getBatchMaxStatements() {
+        return batchMaxStatements;
+    }
+
+    public int getBatchMaxBytes() {
+        return batchMaxBytes;
+    }
+
+    /**
+     * the executor of executeAsync, null for the driver worker threads.
+     */
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * connections opened by warm-up on every one of hosts: its share of minConnsSize, at least one.
+     * The pool of each host caps it by its share of maxConnsSize.
+     */
+    public int getWarmUpConnectionsPerHost(int hosts) {
+        return Math.max(1, (minConnsSize + hosts - 1) / Math.max(1, hosts));
+    }
+}
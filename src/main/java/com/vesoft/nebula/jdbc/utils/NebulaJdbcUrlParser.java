@@ -67,11 +67,20 @@ public class NebulaJdbcUrlParser {
      * like: jdbc:nebula://127.0.0.1:9669/test?useUnicode=utf-8&useSSL=true
      */
     private static Properties parseUriQueryPart(String query, Properties defaults) {
+        // copy instead of chaining defaults, non-String values in the defaults would be invisible
+        // to getProperty() otherwise. putAll() only sees the direct entries of defaults, the ones
+        // it chains to come through stringPropertyNames()
+        Properties urlProps = new Properties();
+        if (defaults != null) {
+            for (String key : defaults.stringPropertyNames()) {
+                urlProps.setProperty(key, defaults.getProperty(key));
+            }
+            urlProps.putAll(defaults);
+        }
         if (query == null) {
-            return defaults;
+            return urlProps;
         }
 
-        Properties urlProps = new Properties(defaults);
         String[] queryKeyValues = query.split("&");
         for (String keyValue : queryKeyValues) {
             String[] kvTokens = keyValue.split("=");
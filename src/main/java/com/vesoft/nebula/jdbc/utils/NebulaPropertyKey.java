@@ -22,7 +22,38 @@ public enum NebulaPropertyKey {
     TIMEOUT("timeout", false),
     IDLETIME("idleTime", false),
     INTERVALIDLE("intervalIdle", false),
-    WAITTIME("waitTime", false);
+    WAITTIME("waitTime", false),
+    MINCLUSTERHEALTHRATE("minClusterHealthRate", false),
+    ENABLESSL("enableSsl", false),
+    SSLSIGNMODE("sslSignMode", false),
+    CACRTFILE("caCrtFile", false),
+    CRTFILE("crtFile", false),
+    KEYFILE("keyFile", false),
+    SSLPASSWORD("sslPassword", false),
+    SESSIONPOOL("sessionPool", false),
+    HEALTHCHECKTIME("healthCheckTime", false),
+    CLEANTIME("cleanTime", false),
+    WARMUP("warmUp", false),
+    LAZYINIT("lazyInit", false),
+    LOADBALANCER("loadBalancer", false),
+    HEDGEREAD("hedgeRead", false),
+    HEDGEPERCENTILE("hedgePercentile", false),
+    HEDGEMINDELAY("hedgeMinDelay", false),
+    RETRYTIMES("retryTimes", false),
+    RETRYBACKOFF("retryBackoff", false),
+    RETRYMAXBACKOFF("retryMaxBackoff", false),
+    CIRCUITBREAKERFAILURES("circuitBreakerFailures", false),
+    CIRCUITBREAKEROPENTIME("circuitBreakerOpenTime", false),
+    VALIDATIONWINDOW("validationWindow", false),
+    KEEPALIVETIME("keepAliveTime", false),
+    IDLEEVICTTIME("idleEvictTime", false),
+    SESSIONSPERCONNECTION("sessionsPerConnection", false),
+    SESSIONBINDING("sessionBinding", false),
+    PREPAREDSTATEMENTCACHESIZE("preparedStatementCacheSize", false),
+    PARAMETERBINDING("parameterBinding", false),
+    BATCHMAXSTATEMENTS("batchMaxStatements", false),
+    BATCHMAXBYTES("batchMaxBytes", false),
+    ASYNCEXECUTOR("asyncExecutor", false);
 
     private String keyName;
     private boolean isCaseSensitive;
@@ -0,0 +1,51 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.utils;
+
+import java.sql.SQLException;
+
+/**
+ * How a connection with several sessions picks the session of a statement.
+ */
+public enum SessionBinding {
+    /**
+     * every thread always uses the same session of the connection.
+     */
+    PER_THREAD("perThread"),
+    /**
+     * the sessions take the statements in turn.
+     */
+    ROUND_ROBIN("roundRobin"),
+    /**
+     * the session with the fewest running statements, a new one is opened before an idle
+     * session is shared.
+     */
+    LEAST_BUSY("leastBusy");
+
+    private final String name;
+
+    SessionBinding(String name) {
+        this.name = name;
+    }
+
+    public static SessionBinding of(String name) throws SQLException {
+        if (name == null) {
+            return ROUND_ROBIN;
+        }
+        for (SessionBinding binding : values()) {
+            if (binding.name.equalsIgnoreCase(name)) {
+                return binding;
+            }
+        }
+        throw new SQLException(String.format("%s [%s] should be one of [perThread, roundRobin, leastBusy].",
+                NebulaPropertyKey.SESSIONBINDING, name));
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
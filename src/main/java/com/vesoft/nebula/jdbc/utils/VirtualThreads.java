@@ -0,0 +1,31 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.utils;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+
+/**
+ * Virtual threads for asyncExecutor=virtual. This is the Java 8 version, the multi-release jar
+ * replaces it on Java 21 and later, see src/main/java21.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * an executor starting a virtual thread per task, shared by all connections.
+     */
+    public static Executor executor() throws SQLException {
+        throw new SQLException(String.format("%s=virtual needs Java 21 or later, running on Java %s.",
+                NebulaPropertyKey.ASYNCEXECUTOR, System.getProperty("java.version")));
+    }
+}
@@ -0,0 +1,35 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+package com.vesoft.nebula.jdbc.utils;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual threads for asyncExecutor=virtual, the Java 21 layer of the multi-release jar.
+ */
+public final class VirtualThreads {
+
+    private static final class Holder {
+        private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("nebula-jdbc-virtual-", 0).factory());
+    }
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * an executor starting a virtual thread per task, shared by all connections.
+     */
+    public static Executor executor() {
+        return Holder.EXECUTOR;
+    }
+}
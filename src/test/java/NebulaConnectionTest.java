@@ -83,6 +83,22 @@ public class NebulaConnectionTest {
 
     }
 
+    @Test
+    public void useStatementTrackingTest() throws SQLException {
+
+        NebulaConnection connection = (NebulaConnection)DriverManager.getConnection(RunMeBeforeTest.URL, RunMeBeforeTest.USERNAME, RunMeBeforeTest.PASSWORD);
+        Statement statement = connection.createStatement();
+        statement.execute("USE ANOTHER_JDBC_TEST_SPACE");
+        assertEquals("ANOTHER_JDBC_TEST_SPACE", connection.getSchema());
+
+        connection.setSchema("JDBC_TEST_SPACE");
+        assertTrue(connection.execute("use JDBC_TEST_SPACE; YIELD 1").isSucceeded());
+        assertEquals("JDBC_TEST_SPACE", connection.execute("YIELD 1").getSpaceName());
+
+        connection.close();
+
+    }
+
 
     @Test
     void testGetMetadata() throws SQLException {
@@ -0,0 +1,64 @@
+/* Copyright (c) 2022 vesoft inc. All rights reserved.
+ *
+ * This source code is licensed under Apache 2.0 License.
+ */
+
+import com.vesoft.nebula.jdbc.NebulaConnection;
+import com.vesoft.nebula.jdbc.NebulaDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.sql.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Attention: Please run {@link RunMeBeforeTest#createTestGraphSpace()} if you do not run that method before,
+ * it will create graph space for test and insert data into it.
+ */
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class NebulaDataSourceTest {
+
+    NebulaDataSource dataSource;
+
+    @BeforeAll
+    public void createDataSource() {
+        dataSource = new NebulaDataSource(RunMeBeforeTest.URL, RunMeBeforeTest.USERNAME, RunMeBeforeTest.PASSWORD);
+        dataSource.setMinIdle(1);
+        dataSource.setMaxPoolSize(2);
+        dataSource.setConnectionTimeout(500);
+    }
+
+    @AfterAll
+    public void closeDataSource() {
+        dataSource.close();
+    }
+
+    @Test
+    public void reuseSessionTest() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        NebulaConnection physical = connection.unwrap(NebulaConnection.class);
+        assertEquals(RunMeBeforeTest.GRAPH_SPACE, connection.getSchema());
+        connection.close();
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, connection::createStatement);
+
+        Connection another = dataSource.getConnection();
+        assertSame(physical, another.unwrap(NebulaConnection.class));
+        another.close();
+    }
+
+    @Test
+    public void exhaustedPoolTest() throws SQLException {
+        Connection connection1 = dataSource.getConnection();
+        Connection connection2 = dataSource.getConnection();
+        assertThrows(SQLTimeoutException.class, () -> dataSource.getConnection());
+        connection1.close();
+        connection2.close();
+        assertEquals(2, dataSource.getIdleConnections());
+    }
+
+}
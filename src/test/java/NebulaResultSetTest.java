@@ -104,7 +104,7 @@ public class NebulaResultSetTest {
         String queryPath = "FIND ALL PATH FROM \"testNode_1\" TO \"testNode_2\" OVER * YIELD path AS p;";
 
         SQLException queryByExecuteUpdateException = assertThrows(SQLException.class, () -> statement.executeUpdate(queryReturnValue));
-        assertEquals("Method executeUpdate() can only execute nGql to update data, but the current nGql do not contains any update keyword in [update, delete, insert, upsert, create, drop, alter, rebuild], please modify your nGql or use executeQuery(), execute().",
+        assertEquals("Method executeUpdate() can only execute nGql to update data or schema, but the current nGql is classified as [READ], please modify your nGql or use executeQuery(), execute().",
                 queryByExecuteUpdateException.getMessage());
 
         ResultSet resultSet = statement.executeQuery(queryReturnValue);
@@ -0,0 +1,45 @@
+package com.vesoft.nebula.jdbc.balancer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+	@Test
+	void testOpensAfterConsecutiveFailures() {
+		CircuitBreaker breaker = new CircuitBreaker(3, 60_000);
+		breaker.recordFailure();
+		breaker.recordFailure();
+		breaker.recordSuccess();
+		breaker.recordFailure();
+		breaker.recordFailure();
+		assertTrue(breaker.isAvailable());
+		breaker.recordFailure();
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		assertFalse(breaker.isAvailable());
+	}
+
+	@Test
+	void testHalfOpenTrial() {
+		CircuitBreaker breaker = new CircuitBreaker(1, 0);
+		breaker.recordFailure();
+		assertTrue(breaker.isAvailable());
+		breaker.onSelected();
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		breaker.recordFailure();
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		breaker.onSelected();
+		breaker.recordSuccess();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	void testDisabled() {
+		CircuitBreaker breaker = new CircuitBreaker(0, 60_000);
+		for (int i = 0; i < 10; i++) {
+			breaker.recordFailure();
+		}
+		assertTrue(breaker.isAvailable());
+	}
+}
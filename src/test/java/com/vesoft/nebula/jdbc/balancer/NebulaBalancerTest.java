@@ -0,0 +1,52 @@
+package com.vesoft.nebula.jdbc.balancer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.vesoft.nebula.client.graph.data.HostAddress;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class NebulaBalancerTest {
+
+	private final HostStats host1 = new HostStats(new HostAddress("127.0.0.1", 9669));
+	private final HostStats host2 = new HostStats(new HostAddress("127.0.0.2", 9669));
+	private final List<HostStats> hosts = Arrays.asList(host1, host2);
+
+	@Test
+	void testRoundRobin() {
+		NebulaBalancer balancer = new RoundRobinBalancer();
+		assertSame(host1, balancer.select(hosts));
+		assertSame(host2, balancer.select(hosts));
+		assertSame(host1, balancer.select(hosts));
+	}
+
+	@Test
+	void testLeastOutstanding() {
+		NebulaBalancer balancer = new LeastOutstandingBalancer();
+		long start = host1.start();
+		for (int i = 0; i < 4; i++) {
+			assertSame(host2, balancer.select(hosts));
+		}
+		host1.finish(start);
+	}
+
+	@Test
+	void testPowerOfTwoChoicesAvoidsSlowHost() {
+		host1.record(500);
+		host2.record(5);
+		NebulaBalancer balancer = new PowerOfTwoChoicesBalancer();
+		for (int i = 0; i < 10; i++) {
+			assertSame(host2, balancer.select(hosts));
+		}
+	}
+
+	@Test
+	void testEwma() {
+		host1.record(10);
+		assertEquals(10, host1.getEwmaMillis(), 1e-9);
+		host1.record(20);
+		assertEquals(13, host1.getEwmaMillis(), 1e-9);
+	}
+}
@@ -0,0 +1,33 @@
+package com.vesoft.nebula.jdbc.pool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyWindowTest {
+
+	@Test
+	void testPercentile() {
+		LatencyWindow window = new LatencyWindow(100);
+		window.record(1);
+		assertEquals(-1, window.percentile(95));
+		for (int i = 2; i <= 100; i++) {
+			window.record(i);
+		}
+		assertEquals(95, window.percentile(95));
+		assertEquals(100, window.percentile(100));
+		assertEquals(1, window.percentile(1));
+	}
+
+	@Test
+	void testOldSamplesAreForgotten() {
+		LatencyWindow window = new LatencyWindow(LatencyWindow.MIN_SAMPLES);
+		for (int i = 0; i < LatencyWindow.MIN_SAMPLES; i++) {
+			window.record(1000);
+		}
+		for (int i = 0; i < LatencyWindow.MIN_SAMPLES; i++) {
+			window.record(10);
+		}
+		assertEquals(10, window.percentile(99));
+	}
+}
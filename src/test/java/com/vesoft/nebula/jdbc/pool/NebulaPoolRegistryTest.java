@@ -0,0 +1,82 @@
+package com.vesoft.nebula.jdbc.pool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.vesoft.nebula.client.graph.NebulaPoolConfig;
+import com.vesoft.nebula.client.graph.data.HostAddress;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+class NebulaPoolRegistryTest {
+
+	private final List<HostAddress> addresses = Collections.singletonList(new HostAddress("127.0.0.1", 9669));
+
+	@Test
+	void testSameConfigSharesPool() throws SQLException {
+		NebulaPoolRegistry registry = new NebulaPoolRegistry(0);
+		SharedNebulaPool pool1 = registry.acquire(addresses, new NebulaPoolConfig());
+		SharedNebulaPool pool2 = registry.acquire(addresses, new NebulaPoolConfig());
+		assertSame(pool1, pool2);
+		assertEquals(1, registry.size());
+
+		pool1.release();
+		assertFalse(pool2.isClosed());
+		pool2.release();
+		assertTrue(pool2.isClosed());
+		assertEquals(0, registry.size());
+	}
+
+	@Test
+	void testDifferentConfigGetsOwnPool() throws SQLException {
+		NebulaPoolRegistry registry = new NebulaPoolRegistry(0);
+		SharedNebulaPool pool1 = registry.acquire(addresses, new NebulaPoolConfig());
+		SharedNebulaPool pool2 = registry.acquire(addresses, new NebulaPoolConfig().setMaxConnSize(20));
+		assertNotSame(pool1, pool2);
+		assertEquals(2, registry.size());
+		registry.closeAll();
+		assertTrue(pool1.isClosed());
+		assertTrue(pool2.isClosed());
+	}
+
+	@Test
+	void testConcurrentAcquirersShareOnePool() throws Exception {
+		NebulaPoolRegistry registry = new NebulaPoolRegistry(0);
+		CompletableFuture<SharedNebulaPool> other = CompletableFuture.supplyAsync(() -> {
+			try {
+				return registry.acquire(addresses, new NebulaPoolConfig());
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		SharedNebulaPool pool = registry.acquire(addresses, new NebulaPoolConfig());
+		assertSame(pool, other.get());
+		assertEquals(1, registry.size());
+		registry.closeAll();
+	}
+
+	@Test
+	void testLingerKeepsPoolForNextAcquire() throws SQLException {
+		NebulaPoolRegistry registry = new NebulaPoolRegistry(60_000);
+		SharedNebulaPool pool1 = registry.acquire(addresses, new NebulaPoolConfig());
+		pool1.release();
+		SharedNebulaPool pool2 = registry.acquire(addresses, new NebulaPoolConfig());
+		assertSame(pool1, pool2);
+		assertFalse(pool2.isClosed());
+		registry.closeAll();
+	}
+
+	@Test
+	void testConnectionLimitsAreSplitOverHosts() {
+		NebulaPoolConfig config = new NebulaPoolConfig().setMinConnSize(4).setMaxConnSize(10).setTimeout(500);
+		assertEquals(4, NebulaPoolRegistry.forHost(config, 0, 3).getMaxConnSize());
+		assertEquals(3, NebulaPoolRegistry.forHost(config, 2, 3).getMaxConnSize());
+		assertEquals(2, NebulaPoolRegistry.forHost(config, 0, 3).getMinConnSize());
+		assertEquals(1, NebulaPoolRegistry.forHost(config, 2, 3).getMinConnSize());
+		assertEquals(500, NebulaPoolRegistry.forHost(config, 1, 3).getTimeout());
+		assertEquals(1, NebulaPoolRegistry.forHost(new NebulaPoolConfig().setMaxConnSize(2), 2, 3).getMaxConnSize());
+	}
+}
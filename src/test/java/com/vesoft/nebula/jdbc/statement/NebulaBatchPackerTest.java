@@ -0,0 +1,41 @@
+package com.vesoft.nebula.jdbc.statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class NebulaBatchPackerTest {
+
+	@Test
+	void testPackByStatementCount() {
+		List<NebulaBatchPacker.Pack> packs = NebulaBatchPacker.pack(
+				Arrays.asList("INSERT VERTEX v() VALUES \"a\":();", "INSERT VERTEX v() VALUES \"b\":()",
+						"INSERT VERTEX v() VALUES \"c\":()"), 2, 1 << 20);
+		assertEquals(2, packs.size());
+		assertEquals("INSERT VERTEX v() VALUES \"a\":();INSERT VERTEX v() VALUES \"b\":()", packs.get(0).nGql);
+		assertEquals(2, packs.get(1).from);
+		assertEquals(1, packs.get(1).count);
+	}
+
+	@Test
+	void testPackByBytesAndUse() {
+		List<NebulaBatchPacker.Pack> packs = NebulaBatchPacker.pack(
+				Arrays.asList("YIELD 1", "YIELD 2", "use other; YIELD 3", "YIELD 4444444444"), 10, 15);
+		assertEquals(3, packs.size());
+		assertEquals("YIELD 1;YIELD 2", packs.get(0).nGql);
+		assertEquals("use other; YIELD 3", packs.get(1).nGql);
+		assertEquals("YIELD 4444444444", packs.get(2).nGql);
+	}
+
+	@Test
+	void testPackRows() {
+		List<NebulaBatchPacker.Pack> packs = NebulaBatchPacker.packRows("INSERT VERTEX t(a) VALUES",
+				Arrays.asList("\"a\":(1)", "\"b\":(2)", "\"c\":(3)"), 45);
+		assertEquals(2, packs.size());
+		assertEquals("INSERT VERTEX t(a) VALUES \"a\":(1), \"b\":(2)", packs.get(0).nGql);
+		assertEquals("INSERT VERTEX t(a) VALUES \"c\":(3)", packs.get(1).nGql);
+	}
+}
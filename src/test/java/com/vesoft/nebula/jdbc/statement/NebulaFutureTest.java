@@ -0,0 +1,52 @@
+package com.vesoft.nebula.jdbc.statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class NebulaFutureTest {
+
+	@Test
+	void testCancelledBeforeRunSkipsTask() {
+		NebulaFuture<String> future = new NebulaFuture<>();
+		AtomicBoolean ran = new AtomicBoolean();
+		assertTrue(future.cancel(false));
+		future.run(() -> {
+			ran.set(true);
+			return "done";
+		});
+		assertFalse(ran.get());
+		assertTrue(future.isCancelled());
+	}
+
+	@Test
+	void testCancelInterruptsRunningTask() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			NebulaFuture<String> future = new NebulaFuture<>();
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch interrupted = new CountDownLatch(1);
+			executor.execute(() -> future.run(() -> {
+				started.countDown();
+				try {
+					Thread.sleep(10_000);
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+				return "late";
+			}));
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			assertTrue(future.cancel(true));
+			assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+			assertFalse(executor.submit(() -> Thread.currentThread().isInterrupted()).get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
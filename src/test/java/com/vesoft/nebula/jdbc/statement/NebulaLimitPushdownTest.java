@@ -0,0 +1,58 @@
+package com.vesoft.nebula.jdbc.statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class NebulaLimitPushdownTest {
+
+	@Test
+	void testAppendLimit() {
+		assertEquals("MATCH (v:player) RETURN v LIMIT 100",
+				NebulaLimitPushdown.pushDown("MATCH (v:player) RETURN v;", 100));
+		assertEquals("use nba; GO FROM \"a\" OVER follow YIELD dst(edge) | LIMIT 100",
+				NebulaLimitPushdown.pushDown("use nba; GO FROM \"a\" OVER follow YIELD dst(edge) # targets", 100));
+		assertEquals("LOOKUP ON player YIELD id(vertex) | LIMIT 5",
+				NebulaLimitPushdown.pushDown("LOOKUP ON player YIELD id(vertex)", 5));
+	}
+
+	@Test
+	void testTightenLimit() {
+		assertEquals("MATCH (v) RETURN v SKIP 10 LIMIT 100",
+				NebulaLimitPushdown.pushDown("MATCH (v) RETURN v SKIP 10 LIMIT 1000", 100));
+		assertEquals("GO FROM \"a\" OVER e YIELD dst(edge) | LIMIT 3, 100",
+				NebulaLimitPushdown.pushDown("GO FROM \"a\" OVER e YIELD dst(edge) | LIMIT 3, 1000", 100));
+		assertEquals("MATCH (v) RETURN v LIMIT 10", NebulaLimitPushdown.pushDown("MATCH (v) RETURN v LIMIT 10", 100));
+		assertEquals("MATCH (v) WITH v LIMIT 5 MATCH (v)-->(n) RETURN n LIMIT 100",
+				NebulaLimitPushdown.pushDown("MATCH (v) WITH v LIMIT 5 MATCH (v)-->(n) RETURN n", 100));
+	}
+
+	@Test
+	void testKeepUnknownShape() {
+		String[] unchanged = {
+				"SHOW HOSTS",
+				"MATCH (v) RETURN v LIMIT $n",
+				"MATCH (v) RETURN v UNION MATCH (n) RETURN n",
+				"MATCH (v) RETURN v; MATCH (n) RETURN n",
+				"FETCH PROP ON player \"LIMIT 1\" YIELD properties(vertex) | LIMIT 1"
+		};
+		for (String nGql : unchanged) {
+			assertEquals(nGql, NebulaLimitPushdown.pushDown(nGql, 100));
+		}
+	}
+
+	@Test
+	void testPage() {
+		assertEquals("MATCH (v:player) RETURN v.player.name AS n ORDER BY n SKIP 200 LIMIT 100",
+				NebulaLimitPushdown.page("MATCH (v:player) RETURN v.player.name AS n ORDER BY n;", 200, 100));
+		assertEquals("GO FROM \"a\" OVER e YIELD dst(edge) AS d | ORDER BY $-.d | LIMIT 0, 50",
+				NebulaLimitPushdown.page("GO FROM \"a\" OVER e YIELD dst(edge) AS d | ORDER BY $-.d", 0, 50));
+		assertNull(NebulaLimitPushdown.page("MATCH (v) RETURN v", 0, 100));
+		assertNull(NebulaLimitPushdown.page("MATCH (v) WITH v ORDER BY id(v) RETURN v", 0, 100));
+		assertNull(NebulaLimitPushdown.page("MATCH (v) RETURN v ORDER BY id(v) LIMIT 10", 0, 100));
+		assertNull(NebulaLimitPushdown.page("GO FROM \"a\" OVER e YIELD dst(edge) AS d | ORDER BY $-.d | LIMIT 5", 0, 100));
+		assertNull(NebulaLimitPushdown.page("SHOW HOSTS", 0, 100));
+		assertEquals("LOOKUP ON v WHERE v.x == 1 || v.y == 2 YIELD id(vertex) AS id | ORDER BY $-.id | LIMIT 0, 50",
+				NebulaLimitPushdown.page("LOOKUP ON v WHERE v.x == 1 || v.y == 2 YIELD id(vertex) AS id | ORDER BY $-.id", 0, 50));
+	}
+}
@@ -0,0 +1,54 @@
+package com.vesoft.nebula.jdbc.statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class NebulaLiteralEncoderTest {
+
+	private static String encode(Object value) throws SQLException {
+		StringBuilder out = new StringBuilder();
+		NebulaLiteralEncoder.append(out, value);
+		return out.toString();
+	}
+
+	@Test
+	void testEscapeString() throws SQLException {
+		assertEquals("\"say \\\"hi\\\"\\n\\\\\"", encode("say \"hi\"\n\\"));
+		assertEquals("\"plain\"", encode("plain"));
+		assertEquals("null", encode(null));
+	}
+
+	@Test
+	void testTemporals() throws SQLException {
+		assertEquals("date(\"2022-03-04\")", encode(java.sql.Date.valueOf("2022-03-04")));
+		assertEquals("time(\"10:11:12.000000\")", encode(Time.valueOf("10:11:12")));
+		assertEquals("datetime(\"2022-03-04T10:11:12.123456\")",
+				encode(Timestamp.valueOf("2022-03-04 10:11:12.123456")));
+	}
+
+	@Test
+	void testCollections() throws SQLException {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("name", "a");
+		map.put("two words", Arrays.asList(1, 2L));
+		assertEquals("{name: \"a\", `two words`: [1, 2]}", encode(map));
+		assertThrows(SQLException.class, () -> encode(new Object()));
+	}
+
+	@Test
+	void testNumbers() throws SQLException {
+		assertEquals("0.000001", encode(new BigDecimal("1E-6")));
+		assertEquals("1.5", encode(1.5d));
+		assertThrows(SQLException.class, () -> encode(Double.NaN));
+		assertThrows(SQLException.class, () -> encode(Float.NEGATIVE_INFINITY));
+	}
+}
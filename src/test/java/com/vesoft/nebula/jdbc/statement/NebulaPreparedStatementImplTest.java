@@ -2,6 +2,7 @@ package com.vesoft.nebula.jdbc.statement;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.math.BigDecimal;
 import java.util.stream.Stream;
 import java.sql.SQLException;
 import java.sql.Types;
@@ -72,4 +73,129 @@ class NebulaPreparedStatementImplTest {
 		String resultNql = stmt.replacePlaceHolderWithParam(nql);
 		assertEquals(expected, resultNql);
 	}
-}
\ No newline at end of file
+
+	@Test
+	void testRenderParameters() throws SQLException {
+		NebulaPreparedStatementImpl stmt = new NebulaPreparedStatementImpl(null,
+				"INSERT VERTEX vert (p1,p2,p3) VALUES ?:(\"a?\", ?, ?)");
+		stmt.setString(1, "v$1");
+		stmt.setInt(2, 7);
+		stmt.setNull(3, Types.INTEGER);
+		assertEquals("INSERT VERTEX vert (p1,p2,p3) VALUES \"v$1\":(\"a?\", 7, null)",
+				stmt.replacePlaceHolderWithParam(stmt.rawNGQL));
+		stmt.setInt(2, 8);
+		assertEquals("INSERT VERTEX vert (p1,p2,p3) VALUES \"v$1\":(\"a?\", 8, null)",
+				stmt.replacePlaceHolderWithParam(stmt.rawNGQL));
+	}
+
+	@Test
+	void testParameterizedNGQL() {
+		NebulaPreparedTemplate template = new NebulaPreparedTemplate(
+				"INSERT VERTEX vert (p1,p2) VALUES ?:(\"a?\", ?)");
+		assertEquals("INSERT VERTEX vert (p1,p2) VALUES $p1:(\"a?\", $p2)", template.getParameterizedNGQL());
+	}
+
+	@Test
+	void testToParameterValue() throws SQLException {
+		assertEquals(7L, NebulaPreparedStatementImpl.toParameterValue(7L));
+		assertNull(NebulaPreparedStatementImpl.toParameterValue(null));
+		assertEquals(new com.vesoft.nebula.Date((short) 2022, (byte) 3, (byte) 4),
+				NebulaPreparedStatementImpl.toParameterValue(java.sql.Date.valueOf("2022-03-04")));
+		assertThrows(SQLException.class, () -> NebulaPreparedStatementImpl.toParameterValue(new Object()));
+	}
+
+	@Test
+	void testBoundAndLiteralTemporalsAgree() throws SQLException {
+		java.util.Date instant = new java.util.Date(1646388672123L);
+		Object[] values = {java.sql.Date.valueOf("2022-03-04"), java.sql.Time.valueOf("10:11:12"),
+				java.sql.Timestamp.valueOf("2022-03-04 10:11:12.123456"), instant};
+		for (Object value : values) {
+			StringBuilder literal = new StringBuilder();
+			NebulaLiteralEncoder.append(literal, value);
+			assertEquals(literal.toString(), asLiteral(NebulaPreparedStatementImpl.toParameterValue(value)));
+		}
+	}
+
+	private static String asLiteral(Object bound) {
+		if (bound instanceof com.vesoft.nebula.Date) {
+			com.vesoft.nebula.Date date = (com.vesoft.nebula.Date) bound;
+			return String.format("date(\"%04d-%02d-%02d\")", date.getYear(), date.getMonth(), date.getDay());
+		}
+		if (bound instanceof com.vesoft.nebula.Time) {
+			com.vesoft.nebula.Time time = (com.vesoft.nebula.Time) bound;
+			return String.format("time(\"%02d:%02d:%02d.%06d\")", time.getHour(), time.getMinute(),
+					time.getSec(), time.getMicrosec());
+		}
+		com.vesoft.nebula.DateTime dateTime = (com.vesoft.nebula.DateTime) bound;
+		return String.format("datetime(\"%04d-%02d-%02dT%02d:%02d:%02d.%06d\")", dateTime.getYear(),
+				dateTime.getMonth(), dateTime.getDay(), dateTime.getHour(), dateTime.getMinute(),
+				dateTime.getSec(), dateTime.getMicrosec());
+	}
+
+	@Test
+	void testParametersView() throws SQLException {
+		NebulaPreparedStatementImpl stmt = new NebulaPreparedStatementImpl(null,
+				"INSERT VERTEX vert (p1,p2,p3) VALUES ?:(?, ?)");
+		stmt.setBoolean(1, true);
+		stmt.setDouble(3, 1.5);
+		assertEquals(2, stmt.getParameters().size());
+		assertEquals(Boolean.TRUE, stmt.getParameters().get(1));
+		assertFalse(stmt.getParameters().containsKey(2));
+		assertEquals(1.5, stmt.getParameters().get(3));
+		assertThrows(SQLException.class, () -> stmt.setInt(0, 1));
+		stmt.clearParameters();
+		assertTrue(stmt.getParameters().isEmpty());
+		stmt.getParameters().put(2, "a");
+		assertEquals("a", stmt.getParameters().get(2));
+		stmt.getParameters().remove(2);
+		assertTrue(stmt.getParameters().isEmpty());
+	}
+
+	@Test
+	void testRenderLongAndFloat() throws SQLException {
+		NebulaPreparedStatementImpl stmt = new NebulaPreparedStatementImpl(null, "YIELD ?, ?");
+		stmt.setLong(1, 1L << 40);
+		stmt.setFloat(2, 1.1f);
+		assertEquals("YIELD 1099511627776, 1.1", stmt.replacePlaceHolderWithParam(stmt.rawNGQL));
+		assertEquals(1.1f, stmt.getParameters().get(2));
+	}
+
+	@Test
+	void testRenderBigDecimalAndNonFinite() throws SQLException {
+		NebulaPreparedStatementImpl stmt = new NebulaPreparedStatementImpl(null, "YIELD ?, ?");
+		stmt.setObject(1, new BigDecimal("12.50"));
+		stmt.setDouble(2, Double.POSITIVE_INFINITY);
+		assertThrows(SQLException.class, () -> stmt.replacePlaceHolderWithParam(stmt.rawNGQL));
+		stmt.setFloat(2, Float.NaN);
+		assertThrows(SQLException.class, () -> stmt.replacePlaceHolderWithParam(stmt.rawNGQL));
+		stmt.setFloat(2, 2f);
+		assertEquals("YIELD 12.50, 2.0", stmt.replacePlaceHolderWithParam(stmt.rawNGQL));
+	}
+
+	@Test
+	void testInsertRows() throws SQLException {
+		NebulaPreparedTemplate edge = new NebulaPreparedTemplate("INSERT EDGE e(a) VALUES ?->?:(\"x values\", ?);");
+		assertTrue(edge.isInsertRows());
+		assertEquals("INSERT EDGE e(a) VALUES", edge.getInsertHead());
+		assertEquals("\"a\"->\"b\":(\"x values\", 1)",
+				edge.getRow("INSERT EDGE e(a) VALUES \"a\"->\"b\":(\"x values\", 1);"));
+		assertFalse(new NebulaPreparedTemplate("INSERT VERTEX ?(a) VALUES \"v\":(?)").isInsertRows());
+		assertFalse(new NebulaPreparedTemplate("INSERT VERTEX t(a) VALUES \"v\":(?); YIELD 1").isInsertRows());
+		assertFalse(new NebulaPreparedTemplate("UPDATE VERTEX ON t \"v\" SET a = ?").isInsertRows());
+	}
+
+	@Test
+	void testQueryTimeoutAndCancel() throws SQLException {
+		NebulaPreparedStatementImpl stmt = new NebulaPreparedStatementImpl(null, "YIELD 1");
+		assertEquals(0, stmt.getQueryTimeout());
+		stmt.setQueryTimeout(3);
+		assertEquals(3, stmt.getQueryTimeout());
+		assertThrows(SQLException.class, () -> stmt.setQueryTimeout(-1));
+		stmt.cancel();
+
+		com.vesoft.nebula.jdbc.NebulaRunningQuery query = new com.vesoft.nebula.jdbc.NebulaRunningQuery();
+		query.markCancelled();
+		SQLException e = assertThrows(SQLException.class, () -> stmt.run("YIELD 1", null, true, query));
+		assertEquals("HY008", e.getSQLState());
+	}
+}
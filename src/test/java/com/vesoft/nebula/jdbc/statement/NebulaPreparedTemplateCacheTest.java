@@ -0,0 +1,39 @@
+package com.vesoft.nebula.jdbc.statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.Test;
+
+class NebulaPreparedTemplateCacheTest {
+
+	@Test
+	void testLeastRecentlyUsedIsEvicted() {
+		NebulaPreparedTemplateCache cache = new NebulaPreparedTemplateCache(2);
+		NebulaPreparedTemplate first = cache.get("FETCH PROP ON vert ? YIELD vertex AS v");
+		cache.get("FETCH PROP ON vert2 ? YIELD vertex AS v");
+		assertSame(first, cache.get("FETCH PROP ON vert ? YIELD vertex AS v"));
+		cache.get("FETCH PROP ON vert3 ? YIELD vertex AS v");
+		assertEquals(2, cache.size());
+		assertSame(first, cache.get("FETCH PROP ON vert ? YIELD vertex AS v"));
+		assertEquals(1, first.getParametersNumber());
+	}
+
+	@Test
+	void testDisabledCache() {
+		NebulaPreparedTemplateCache cache = new NebulaPreparedTemplateCache(0);
+		assertNotSame(cache.get("YIELD ?"), cache.get("YIELD ?"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void testClassificationIsReplayed() throws SQLException {
+		NebulaPreparedTemplate template = new NebulaPreparedTemplate("INSERT VERTEX vert (prop) VALUES \"v1\":(?)");
+		NebulaPreparedStatementImpl statement = new NebulaPreparedStatementImpl(null, template);
+		template.checkUpdate(statement);
+		template.checkUpdate(statement);
+		assertThrows(SQLException.class, () -> template.checkReadOnly(statement));
+		assertThrows(SQLException.class, () -> template.checkReadOnly(statement));
+	}
+}
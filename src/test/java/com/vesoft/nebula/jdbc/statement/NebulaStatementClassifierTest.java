@@ -0,0 +1,84 @@
+package com.vesoft.nebula.jdbc.statement;
+
+import static com.vesoft.nebula.jdbc.statement.NebulaStatementClassifier.classify;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class NebulaStatementClassifierTest {
+
+	@Test
+	void testKinds() {
+		assertEquals(NebulaStatementKind.READ, classify("MATCH (v)-[e:follow|serve]->(n) RETURN n"));
+		assertEquals(NebulaStatementKind.READ, classify("use nba;\n\tshow tags"));
+		assertEquals(NebulaStatementKind.READ, classify("EXPLAIN INSERT VERTEX v() VALUES \"a\":()"));
+		assertEquals(NebulaStatementKind.READ, classify("PROFILE FORMAT=\"row\" GO FROM \"a\" OVER e YIELD dst(edge)"));
+		assertEquals(NebulaStatementKind.WRITE, classify("INSERT VERTEX v(name) VALUES \"a\":(\"match;go\")"));
+		assertEquals(NebulaStatementKind.WRITE, classify("LOOKUP ON v YIELD id(vertex) AS id | DELETE VERTEX $-.id"));
+		assertEquals(NebulaStatementKind.MULTI, classify("$a = GO FROM \"a\" OVER e YIELD dst(edge) AS d; DELETE VERTEX \"b\""));
+		assertEquals(NebulaStatementKind.DDL, classify("# comment with match\nCREATE TAG IF NOT EXISTS t(a int)"));
+		assertEquals(NebulaStatementKind.ADMIN, classify("/* go */ SUBMIT JOB COMPACT"));
+		assertEquals(NebulaStatementKind.MULTI, classify("CREATE TAG t(a int); INSERT VERTEX t(a) VALUES \"a\":(1)"));
+		assertEquals(NebulaStatementKind.UNKNOWN, classify("  ;"));
+		assertEquals(NebulaStatementKind.UNKNOWN, classify("\"insert\""));
+	}
+
+	@Test
+	void testComments() {
+		assertEquals(NebulaStatementKind.READ, classify("// delete\nMATCH (v) RETURN v"));
+		assertEquals(NebulaStatementKind.READ, classify("MATCH (v) RETURN v /* ; DELETE VERTEX \"a\" */"));
+		assertEquals(NebulaStatementKind.WRITE, classify("# show tags\n/* go\n */ DELETE VERTEX \"a\" # ; match"));
+		assertEquals(NebulaStatementKind.UNKNOWN, classify("// insert"));
+	}
+
+	@Test
+	void testQuotes() {
+		assertEquals(NebulaStatementKind.READ, classify("GO FROM \"a; insert\" OVER e YIELD dst(edge)"));
+		assertEquals(NebulaStatementKind.READ, classify("FETCH PROP ON v 'x; drop tag t' YIELD properties(vertex)"));
+		assertEquals(NebulaStatementKind.READ, classify("LOOKUP ON `delete; t` YIELD id(vertex)"));
+		assertEquals(NebulaStatementKind.WRITE, classify("INSERT VERTEX v(name) VALUES \"a\":('it\\'s; match')"));
+		assertEquals(NebulaStatementKind.WRITE, classify("UPSERT VERTEX \"a\" SET v.name = \"say \\\"go\\\"; show\""));
+	}
+
+	@Test
+	void testPipes() {
+		assertEquals(NebulaStatementKind.READ, classify("GO FROM \"a\" OVER e YIELD dst(edge) AS d | YIELD $-.d"));
+		assertEquals(NebulaStatementKind.READ,
+				classify("GO FROM \"a\" OVER e WHERE properties(edge).x == \"|delete\" YIELD dst(edge)"));
+		assertEquals(NebulaStatementKind.WRITE,
+				classify("GO FROM \"a\" OVER e YIELD dst(edge) AS d | ORDER BY $-.d | DELETE VERTEX $-.d"));
+		assertEquals(NebulaStatementKind.READ,
+				classify("GO FROM \"a\" OVER e WHERE properties(edge).x > 1 || properties(edge).y < 2 YIELD dst(edge)"));
+	}
+
+	@Test
+	void testProfileAndExplain() {
+		assertEquals(NebulaStatementKind.WRITE, classify("PROFILE DELETE VERTEX \"a\""));
+		assertEquals(NebulaStatementKind.DDL, classify("profile format=\"row\" DROP TAG t"));
+		assertEquals(NebulaStatementKind.READ, classify("EXPLAIN FORMAT=\"dot\" DROP TAG t"));
+		assertEquals(NebulaStatementKind.READ, classify("explain LOOKUP ON v YIELD id(vertex) AS id | DELETE VERTEX $-.id"));
+	}
+
+	@Test
+	void testAssignments() {
+		assertEquals(NebulaStatementKind.READ,
+				classify("$a = GO FROM \"a\" OVER e YIELD dst(edge) AS d; GO FROM $a.d OVER e YIELD dst(edge)"));
+		assertEquals(NebulaStatementKind.WRITE, classify("$a=LOOKUP ON v YIELD id(vertex) AS id | DELETE VERTEX $-.id"));
+	}
+
+	@Test
+	void testLeadingUse() {
+		assertEquals(NebulaStatementKind.WRITE, classify("USE nba; INSERT VERTEX v() VALUES \"a\":()"));
+		assertEquals(NebulaStatementKind.READ, classify("use `my space`; use nba; MATCH (v) RETURN v"));
+		assertEquals(NebulaStatementKind.UNKNOWN, classify("USE nba;"));
+	}
+
+	@Test
+	void testMulti() {
+		assertEquals(NebulaStatementKind.MULTI, classify("MATCH (v) RETURN v; CREATE TAG t()"));
+		assertEquals(NebulaStatementKind.MULTI, classify("SHOW QUERIES; KILL QUERY (plan=1)"));
+		assertEquals(NebulaStatementKind.READ, classify("GO FROM \"a\" OVER e YIELD dst(edge); FETCH PROP ON v \"a\" YIELD vertex"));
+		assertEquals(NebulaStatementKind.WRITE, classify("INSERT VERTEX v() VALUES \"a\":(); UPSERT VERTEX \"a\" SET v.x = 1;"));
+		assertEquals(NebulaStatementKind.MULTI, classify("USE nba; SHOW TAGS; USE nba; DROP TAG t"));
+	}
+}
@@ -0,0 +1,134 @@
+package com.vesoft.nebula.jdbc.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.vesoft.nebula.client.graph.NebulaPoolConfig;
+import java.net.URISyntaxException;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+class NebulaConfigTest {
+
+	@Test
+	void testUrlQueryReachesPoolConfig() throws SQLException, URISyntaxException {
+		Properties properties = NebulaJdbcUrlParser.parse(
+				"jdbc:nebula://127.0.0.1:9669/test?maxConnsSize=50&minConnsSize=5&timeout=3000", new Properties());
+		NebulaPoolConfig poolConfig = NebulaConfig.parse(properties).toNebulaPoolConfig();
+		assertEquals(50, poolConfig.getMaxConnSize());
+		assertEquals(5, poolConfig.getMinConnSize());
+		assertEquals(3000, poolConfig.getTimeout());
+		assertEquals(NebulaConfig.DEFAULT_WAIT_TIME, poolConfig.getWaitTime());
+	}
+
+	@Test
+	void testObjectValuesInProperties() throws SQLException, URISyntaxException {
+		Properties defaults = new Properties();
+		defaults.put("maxConnsSize", 12);
+		defaults.put("sessionPool", true);
+		Properties properties = NebulaJdbcUrlParser.parse("jdbc:nebula://127.0.0.1:9669/test?waitTime=10", defaults);
+		NebulaConfig config = NebulaConfig.parse(properties);
+		assertEquals(12, config.getMaxConnsSize());
+		assertEquals(10, config.getWaitTime());
+		assertTrue(config.isSessionPool());
+	}
+
+	@Test
+	void testChainedDefaultsInProperties() throws SQLException, URISyntaxException {
+		Properties base = new Properties();
+		base.setProperty("maxConnsSize", "12");
+		base.setProperty("waitTime", "5");
+		Properties defaults = new Properties(base);
+		defaults.setProperty("minConnsSize", "3");
+		Properties properties = NebulaJdbcUrlParser.parse("jdbc:nebula://127.0.0.1:9669/test?waitTime=10", defaults);
+		NebulaConfig config = NebulaConfig.parse(properties);
+		assertEquals(12, config.getMaxConnsSize());
+		assertEquals(3, config.getMinConnsSize());
+		assertEquals(10, config.getWaitTime());
+	}
+
+	@Test
+	void testInvalidValues() {
+		Properties properties = new Properties();
+		properties.setProperty("maxConnsSize", "ten");
+		assertThrows(SQLException.class, () -> NebulaConfig.parse(properties));
+
+		properties.setProperty("maxConnsSize", "2");
+		properties.setProperty("minConnsSize", "3");
+		assertThrows(SQLException.class, () -> NebulaConfig.parse(properties));
+
+		properties.setProperty("minConnsSize", "1");
+		properties.setProperty("enableSsl", "true");
+		assertThrows(SQLException.class, () -> NebulaConfig.parse(properties));
+	}
+
+	@Test
+	void testWarmUpConnections() throws SQLException {
+		Properties properties = new Properties();
+		properties.setProperty("warmUp", "true");
+		properties.setProperty("minConnsSize", "2");
+		properties.setProperty("maxConnsSize", "5");
+		assertEquals(2, NebulaConfig.parse(properties).getWarmUpConnectionsPerHost(1));
+		assertEquals(1, NebulaConfig.parse(properties).getWarmUpConnectionsPerHost(3));
+		properties.setProperty("minConnsSize", "0");
+		assertEquals(1, NebulaConfig.parse(properties).getWarmUpConnectionsPerHost(1));
+
+		properties.setProperty("lazyInit", "true");
+		assertThrows(SQLException.class, () -> NebulaConfig.parse(properties));
+	}
+
+	@Test
+	void testLoadBalancer() throws SQLException {
+		Properties properties = new Properties();
+		assertEquals("roundRobin", NebulaConfig.parse(properties).getLoadBalancer());
+		properties.setProperty("loadBalancer", "P2C");
+		assertEquals("p2c", NebulaConfig.parse(properties).getLoadBalancer());
+		properties.setProperty("loadBalancer", "random");
+		assertThrows(SQLException.class, () -> NebulaConfig.parse(properties));
+	}
+
+	@Test
+	void testSessionsPerConnection() throws SQLException {
+		Properties properties = new Properties();
+		NebulaConfig config = NebulaConfig.parse(properties);
+		assertEquals(1, config.getSessionsPerConnection());
+		assertEquals(SessionBinding.ROUND_ROBIN, config.getSessionBinding());
+
+		properties.setProperty("sessionsPerConnection", "4");
+		properties.setProperty("sessionBinding", "leastbusy");
+		config = NebulaConfig.parse(properties);
+		assertEquals(4, config.getSessionsPerConnection());
+		assertEquals(SessionBinding.LEAST_BUSY, config.getSessionBinding());
+
+		properties.setProperty("sessionsPerConnection", "0");
+		assertThrows(SQLException.class, () -> NebulaConfig.parse(properties));
+	}
+
+	@Test
+	void testParameterBindingNeedsSessions() throws SQLException {
+		Properties properties = new Properties();
+		assertFalse(NebulaConfig.parse(properties).isParameterBinding());
+		properties.setProperty("parameterBinding", "true");
+		assertTrue(NebulaConfig.parse(properties).isParameterBinding());
+		properties.setProperty("sessionPool", "true");
+		assertThrows(SQLException.class, () -> NebulaConfig.parse(properties));
+	}
+
+	@Test
+	void testAsyncExecutor() throws SQLException {
+		Properties properties = new Properties();
+		assertNull(NebulaConfig.parse(properties).getAsyncExecutor());
+		java.util.concurrent.Executor executor = Runnable::run;
+		properties.put("asyncExecutor", executor);
+		assertSame(executor, NebulaConfig.parse(properties).getAsyncExecutor());
+		properties.put("asyncExecutor", "direct");
+		assertThrows(SQLException.class, () -> NebulaConfig.parse(properties));
+		properties.put("asyncExecutor", "virtual");
+		if (VirtualThreads.isSupported()) {
+			assertSame(VirtualThreads.executor(), NebulaConfig.parse(properties).getAsyncExecutor());
+		} else {
+			assertThrows(SQLException.class, () -> NebulaConfig.parse(properties));
+		}
+	}
+}